@@ -0,0 +1,42 @@
+package chess.benchmark;
+
+import chess.ChessMatch;
+import chess.ChessPosition;
+import chess.MoveList;
+
+//Partidas e posições comuns aos benchmarks
+final class Games {
+    //Morphy x Duque de Brunswick e Conde Isouard, Paris 1858
+    static final String[] MORPHY = ("e2e4 e7e5 g1f3 d7d6 d2d4 c8g4 d4e5 g4f3 d1f3 d6e5 f1c4 g8f6 f3b3 d8e7 "
+            + "b1c3 c7c6 c1g5 b7b5 c3b5 c6b5 c4b5 b8d7 e1c1 a8d8 d1d7 d8d7 h1d1 e7e6 b5d7 f6d7 b3b8 d7b8 d1d8").split(" ");
+    static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    private Games() {
+    }
+
+    //Joga os primeiros plies pelas casas, como o Main faz
+    static ChessMatch replay(int plies) {
+        ChessMatch match = new ChessMatch();
+        for (int i = 0; i < plies; i++) {
+            String move = MORPHY[i];
+            match.performChessMove(new ChessPosition(move.charAt(0), move.charAt(1) - '0'),
+                    new ChessPosition(move.charAt(2), move.charAt(3) - '0'));
+        }
+        return match;
+    }
+
+    static int[] encoded() {
+        ChessMatch match = new ChessMatch();
+        MoveList legal = new MoveList();
+        int[] encoded = new int[MORPHY.length];
+        for (int i = 0; i < MORPHY.length; i++) {
+            String move = MORPHY[i];
+            int from = (move.charAt(0) - 'a') | ((move.charAt(1) - '1') << 3);
+            int to = (move.charAt(2) - 'a') | ((move.charAt(3) - '1') << 3);
+            match.getLegalMoves(legal);
+            encoded[i] = legal.find(from, to);
+            match.performChessMove(encoded[i]);
+        }
+        return encoded;
+    }
+}
@@ -0,0 +1,74 @@
+package chess.benchmark;
+
+import chess.BitBoard;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Fen;
+import chess.MoveGenerator;
+import chess.MoveList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//Caminhos de uma partida: xeque, lances legais (o antigo testCheckMate), getPieces e replay inteiro
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MatchBenchmark {
+    private final BitBoard kiwipete = new BitBoard();
+    private final MoveList moves = new MoveList();
+    private ChessMatch developed;
+    private int[] encoded;
+
+    @Setup
+    public void setup() {
+        Fen.load(kiwipete, Games.KIWIPETE);
+        developed = Games.replay(12);
+        encoded = Games.encoded();
+    }
+
+    @Benchmark
+    public boolean testCheck() {
+        int us = kiwipete.getSideToMove();
+        return kiwipete.isAttacked(kiwipete.kingSquare(us), us ^ 1);
+    }
+
+    @Benchmark
+    public int testCheckMate() {
+        MoveGenerator.generate(kiwipete, moves);
+        return moves.size();
+    }
+
+    @Benchmark
+    public ChessPiece[][] getPieces() {
+        return developed.getPieces();
+    }
+
+    //Partida inteira pelas casas, o caminho do Main
+    @Benchmark
+    public int performChessMove() {
+        return Games.replay(Games.MORPHY.length).getTurn();
+    }
+
+    //Partida inteira com os lances já codificados, o caminho do replay de PGN
+    @Benchmark
+    public int replayGame() {
+        ChessMatch match = new ChessMatch();
+        for (int move : encoded) {
+            match.performChessMove(move);
+        }
+        return match.getTurn();
+    }
+}
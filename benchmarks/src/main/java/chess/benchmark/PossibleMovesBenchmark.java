@@ -0,0 +1,65 @@
+package chess.benchmark;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//possibleMoves de cada tipo de peça numa posição desenvolvida (12 lances da partida de Morphy)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PossibleMovesBenchmark {
+    @Param({"P", "N", "B", "R", "Q", "K"})
+    public String type;
+
+    private ChessPiece[] pieces;
+
+    @Setup
+    public void setup() {
+        ChessMatch match = Games.replay(12);
+        List<ChessPiece> list = new ArrayList<>();
+        for (ChessPiece[] row : match.getPieces()) {
+            for (ChessPiece piece : row) {
+                if (piece != null && piece.toString().equals(type)) {
+                    list.add(piece);
+                }
+            }
+        }
+        pieces = list.toArray(new ChessPiece[0]);
+    }
+
+    @Benchmark
+    public int possibleMoves() {
+        int n = 0;
+        for (ChessPiece piece : pieces) {
+            n += piece.possibleMoves().length;
+        }
+        return n;
+    }
+
+    @Benchmark
+    public long possibleMovesMask() {
+        long n = 0;
+        for (ChessPiece piece : pieces) {
+            n += piece.possibleMovesMask();
+        }
+        return n;
+    }
+}
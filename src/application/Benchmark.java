@@ -0,0 +1,347 @@
+package application;
+
+import chess.AsciiSequence;
+import chess.BitBoard;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.MoveGenerator;
+import chess.MoveList;
+import chess.PositionSnapshot;
+import chess.engine.ParallelPerft;
+import chess.engine.Evaluation;
+import chess.engine.ParallelSearch;
+import chess.engine.Perft;
+import chess.engine.Search;
+import chess.engine.SearchResult;
+import chess.event.EventDispatcher;
+import chess.event.GameEvent;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+//Medida rápida, sem build; para acompanhar versões use o módulo benchmarks (JMH, com fork e profiler de GC)
+public class Benchmark {
+    //Morphy x Duque de Brunswick e Conde Isouard, Paris 1858
+    private static final String[] GAME = ("e2e4 e7e5 g1f3 d7d6 d2d4 c8g4 d4e5 g4f3 d1f3 d6e5 f1c4 g8f6 f3b3 d8e7 "
+            + "b1c3 c7c6 c1g5 b7b5 c3b5 c6b5 c4b5 b8d7 e1c1 a8d8 d1d7 d8d7 h1d1 e7e6 b5d7 f6d7 b3b8 d7b8 d1d8").split(" ");
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURE_ITERATIONS = 5;
+
+    private static long iterationNanos = 1_000_000_000L;
+    private static volatile long sink;
+
+    private interface Task {
+        long run();
+    }
+
+    public static void main(String[] args) {
+        Locale.setDefault(Locale.US);
+        String filter = "";
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--seconds")) {
+                iterationNanos = (long) (Double.parseDouble(args[++i]) * 1e9);
+            } else {
+                filter = args[i];
+            }
+        }
+        System.out.printf("%-28s %14s %16s %12s%n", "benchmark", "ns/op", "ops/s", "bytes/op");
+
+        ChessMatch developed = replay(12, false);
+        String[] types = {"P", "N", "B", "R", "Q", "K"};
+        for (String type : types) {
+            List<ChessPiece> pieces = piecesOfType(developed, type);
+            run(filter, "possibleMoves." + type, pieces.size(), () -> {
+                long n = 0;
+                for (ChessPiece p : pieces) {
+                    n += p.possibleMoves().length;
+                }
+                return n;
+            });
+            run(filter, "possibleMovesMask." + type, pieces.size(), () -> {
+                long n = 0;
+                for (ChessPiece p : pieces) {
+                    n += p.possibleMovesMask();
+                }
+                return n;
+            });
+        }
+        run(filter, "getPieces", 1, () -> developed.getPieces().length);
+        run(filter, "snapshot.pieceAt", 64, () -> {
+            PositionSnapshot snapshot = developed.getSnapshot();
+            long n = 0;
+            for (int square = 0; square < 64; square++) {
+                n += snapshot.pieceAt(square);
+            }
+            return n;
+        });
+
+        BitBoard kiwipete = new BitBoard();
+        Fen.load(kiwipete, KIWIPETE);
+        run(filter, "testCheck", 1, () -> {
+            int us = kiwipete.getSideToMove();
+            return kiwipete.isAttacked(kiwipete.kingSquare(us), us ^ 1) ? 1 : 0;
+        });
+        MoveList moves = new MoveList();
+        run(filter, "testCheckMate.legalMoves", 1, () -> {
+            MoveGenerator.generate(kiwipete, moves);
+            return moves.size();
+        });
+
+        BitBoard loaded = new BitBoard();
+        run(filter, "fen.load", 1, () -> Fen.load(loaded, KIWIPETE));
+        byte[] bytes = KIWIPETE.getBytes(StandardCharsets.US_ASCII);
+        AsciiSequence view = new AsciiSequence();
+        run(filter, "fen.load.bytes", 1, () -> Fen.load(loaded, view.wrap(bytes, 0, bytes.length)));
+        run(filter, "fen.toFen", 1, () -> Fen.toFen(kiwipete, 1).length());
+        run(filter, "ChessMatch.fromFen", 1, () -> ChessMatch.fromFen(KIWIPETE).getTurn());
+
+        Evaluation evaluation = new Evaluation();
+        run(filter, "evaluate", 1, () -> evaluation.evaluate(kiwipete));
+
+        run(filter, "performChessMove", GAME.length, () -> replay(GAME.length, false).getTurn());
+        run(filter, "performChessMove.highlight", GAME.length, () -> replay(GAME.length, true).getTurn());
+
+        int[] encoded = encodedGame();
+        run(filter, "replay.encoded", GAME.length, () -> {
+            ChessMatch match = new ChessMatch();
+            for (int move : encoded) {
+                match.performChessMove(move);
+            }
+            return match.getTurn();
+        });
+
+        BitBoard initial = new BitBoard();
+        Fen.load(initial, Fen.INITIAL);
+        Perft perft = new Perft(4);
+        run(filter, "perft4.nodes", 197281, () -> perft.count(initial, 4));
+
+        if ("search.nps".contains(filter)) {
+            searchSpeed(kiwipete, 7);
+        }
+        if ("search.smp".contains(filter)) {
+            smpScaling(kiwipete, 8);
+        }
+        if ("events.fanout".contains(filter)) {
+            eventFanOut(1_000_000);
+        }
+        if ("perft.parallel".contains(filter)) {
+            scaling(initial, 6);
+        }
+    }
+
+    //Nós/s da busca em profundidade fixa, depois de aquecer o JIT
+    private static void searchSpeed(BitBoard board, int depth) {
+        Search search = new Search();
+        search.setMaxDepth(depth);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            search.getTable().clear();
+            search.search(board);
+        }
+        SearchResult best = null;
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            search.getTable().clear();
+            SearchResult result = search.search(board);
+            if (best == null || result.getNodesPerSecond() > best.getNodesPerSecond()) {
+                best = result;
+            }
+        }
+        System.out.printf("%-28s %14.1f %16d %12s  %s%n", "search.nps depth " + depth,
+                1e9 / best.getNodesPerSecond(), best.getNodesPerSecond(), "-", best);
+    }
+
+    //Tempo até a profundidade com Lazy SMP, tabela limpa a cada medida
+    private static void smpScaling(BitBoard board, int depth) {
+        System.out.println();
+        System.out.printf("%-28s %8s %12s %16s %10s%n", "search.smp depth " + depth, "threads", "ms", "nodes/s", "speedup");
+        int cores = Runtime.getRuntime().availableProcessors();
+        double single = 0;
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+            ParallelSearch search = new ParallelSearch(threads);
+            search.setMaxDepth(depth);
+            search.search(board);
+            long best = Long.MAX_VALUE;
+            long nps = 0;
+            for (int i = 0; i < 3; i++) {
+                search.getTable().clear();
+                long start = System.nanoTime();
+                SearchResult result = search.search(board);
+                long elapsed = System.nanoTime() - start;
+                if (elapsed < best) {
+                    best = elapsed;
+                    nps = result.getNodesPerSecond();
+                }
+            }
+            search.shutdown();
+            if (threads == 1) {
+                single = best;
+            }
+            System.out.printf("%-28s %8d %12.1f %16d %10.2f%n", "", threads, best / 1e6, nps, single / best);
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+
+    //Eventos/s do anel com cada vez mais inscritos; bytes/evento medidos na thread que publica
+    private static void eventFanOut(int events) {
+        System.out.println();
+        System.out.printf("%-28s %12s %16s %16s %10s %12s%n", "events.fanout", "inscritos", "eventos/s", "entregas/s", "lote", "bytes/evento");
+        for (int subscribers = 1; subscribers <= 1024; subscribers *= 8) {
+            EventDispatcher dispatcher = new EventDispatcher();
+            long[] sums = new long[subscribers];
+            for (int i = 0; i < subscribers; i++) {
+                int id = i;
+                dispatcher.subscribe((ring, offset, length) -> {
+                    for (int j = offset; j < offset + length; j++) {
+                        sums[id] += GameEvent.ply(ring[j]);
+                    }
+                });
+            }
+            long event = GameEvent.of(GameEvent.MOVE, 1, 0, 0, -1, false, false, false, 1);
+            for (int i = 0; i < events / 10; i++) {
+                dispatcher.publish(event);
+            }
+            dispatcher.flush();
+            long batches = dispatcher.getBatches();
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < events; i++) {
+                dispatcher.publish(event);
+            }
+            dispatcher.flush();
+            long elapsed = System.nanoTime() - start;
+            long allocated = allocatedBytes() - allocatedBefore;
+            batches = dispatcher.getBatches() - batches;
+            dispatcher.close();
+            for (long sum : sums) {
+                sink += sum;
+            }
+            System.out.printf("%-28s %12d %16.0f %16.0f %10.1f %12.2f%n", "", subscribers, events * 1e9 / elapsed,
+                    (double) events * subscribers * 1e9 / elapsed, (double) events / batches, (double) allocated / events);
+        }
+    }
+
+    //Nós/s do perft paralelo com 1, 2, 4... threads até o número de núcleos
+    private static void scaling(BitBoard board, int depth) {
+        System.out.println();
+        System.out.printf("%-28s %8s %16s %10s %10s%n", "perft.parallel depth " + depth, "threads", "nodes/s", "speedup", "eficiência");
+        int cores = Runtime.getRuntime().availableProcessors();
+        double single = 0;
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+            ParallelPerft perft = new ParallelPerft(threads);
+            perft.count(board, depth - 1);
+            long best = Long.MAX_VALUE;
+            long nodes = 0;
+            for (int i = 0; i < 3; i++) {
+                long start = System.nanoTime();
+                nodes = perft.count(board, depth);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            perft.shutdown();
+            double rate = nodes / (best / 1e9);
+            if (threads == 1) {
+                single = rate;
+            }
+            System.out.printf("%-28s %8d %16.0f %10.2f %9.0f%%%n", "", threads, rate, rate / single, 100 * rate / single / threads);
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+
+    private static void run(String filter, String name, int opsPerCall, Task task) {
+        if (!name.contains(filter)) {
+            return;
+        }
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            measure(task);
+        }
+        double bestNanos = Double.MAX_VALUE;
+        double bytes = 0;
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            double[] result = measure(task);
+            double nanosPerOp = result[0] / result[1] / opsPerCall;
+            if (nanosPerOp < bestNanos) {
+                bestNanos = nanosPerOp;
+            }
+            bytes = result[2] / result[1] / opsPerCall;
+        }
+        System.out.printf("%-28s %14.1f %16.0f %12.1f%n", name, bestNanos, 1e9 / bestNanos, bytes);
+    }
+
+    //Devolve {nanos, chamadas, bytes alocados}
+    private static double[] measure(Task task) {
+        long calls = 0;
+        long result = 0;
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < 64; i++) {
+                result += task.run();
+            }
+            calls += 64;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        long allocated = allocatedBytes() - allocatedBefore;
+        sink += result;
+        return new double[]{elapsed, calls, allocated};
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    //Com highlight faz o mesmo caminho do Main: escolhe a peça, mostra os destinos e joga
+    private static ChessMatch replay(int plies, boolean highlight) {
+        ChessMatch match = new ChessMatch();
+        for (int i = 0; i < plies; i++) {
+            String move = GAME[i];
+            ChessPosition source = new ChessPosition(move.charAt(0), move.charAt(1) - '0');
+            if (highlight) {
+                sink += match.possibleMovesMask(source);
+            }
+            match.performChessMove(source, new ChessPosition(move.charAt(2), move.charAt(3) - '0'));
+        }
+        return match;
+    }
+
+    private static int[] encodedGame() {
+        ChessMatch match = new ChessMatch();
+        MoveList legal = new MoveList();
+        int[] encoded = new int[GAME.length];
+        for (int i = 0; i < GAME.length; i++) {
+            String move = GAME[i];
+            int from = (move.charAt(0) - 'a') | ((move.charAt(1) - '1') << 3);
+            int to = (move.charAt(2) - 'a') | ((move.charAt(3) - '1') << 3);
+            match.getLegalMoves(legal);
+            encoded[i] = legal.find(from, to);
+            match.performChessMove(encoded[i]);
+        }
+        return encoded;
+    }
+
+    private static List<ChessPiece> piecesOfType(ChessMatch match, String type) {
+        List<ChessPiece> list = new ArrayList<>();
+        for (ChessPiece[] row : match.getPieces()) {
+            for (ChessPiece p : row) {
+                if (p != null && p.toString().equals(type)) {
+                    list.add(p);
+                }
+            }
+        }
+        return list;
+    }
+}
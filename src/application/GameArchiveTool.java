@@ -0,0 +1,105 @@
+package application;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.io.GameArchive;
+import chess.io.GameArchiveWriter;
+import chess.io.PgnGame;
+import chess.io.PgnReader;
+import chess.io.PgnReplayer;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Random;
+
+public class GameArchiveTool {
+    public static void main(String[] args) throws IOException {
+        Locale.setDefault(Locale.US);
+        if (args.length >= 3 && args[0].equals("pgn")) {
+            convert(args[1], Paths.get(args[2]), args.length >= 4 && args[3].equals("--hashes"));
+        } else if (args.length >= 3 && args[0].equals("show")) {
+            show(Paths.get(args[1]), Integer.parseInt(args[2]), args.length >= 4 ? Integer.parseInt(args[3]) : -1);
+        } else if (args.length >= 2 && args[0].equals("bench")) {
+            bench(Paths.get(args[1]));
+        } else {
+            System.out.println("Uso: java application.GameArchiveTool pgn <arquivo.pgn> <saida.bin> [--hashes]");
+            System.out.println("     java application.GameArchiveTool show <arquivo.bin> <partida> [lance]");
+            System.out.println("     java application.GameArchiveTool bench <arquivo.bin>");
+        }
+    }
+
+    private static void convert(String pgn, Path out, boolean hashes) throws IOException {
+        long start = System.nanoTime();
+        int errors = 0;
+        try (PgnReader reader = new PgnReader(new InputStreamReader(new FileInputStream(pgn), StandardCharsets.ISO_8859_1));
+             GameArchiveWriter writer = new GameArchiveWriter(out, hashes)) {
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                try {
+                    writer.add(PgnReplayer.play(game), game.getResult());
+                } catch (ChessException e) {
+                    errors++;
+                }
+            }
+            System.out.printf("Partidas: %d  Erros: %d%n", writer.getGameCount(), errors);
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.printf("PGN: %d bytes  Binário: %d bytes  Tempo: %.3f s%n", Files.size(Paths.get(pgn)),
+                Files.size(out), nanos / 1e9);
+    }
+
+    private static void show(Path file, int game, int ply) throws IOException {
+        try (GameArchive archive = GameArchive.open(file)) {
+            ChessMatch match = ply < 0 ? archive.toMatch(game) : archive.toMatch(game, ply);
+            UI.printMatch(match, new ArrayList<>());
+            System.out.println();
+            System.out.println("Partida " + game + ", lance " + match.getMoveCount() + " de " + archive.getPlies(game)
+                    + "  Resultado: " + archive.getResult(game));
+            System.out.println(match.toFen());
+        }
+    }
+
+    //Acesso aleatório: lances soltos direto do arquivo e posições reconstruídas no meio das partidas
+    private static void bench(Path file) throws IOException {
+        try (GameArchive archive = GameArchive.open(file)) {
+            int games = archive.getGameCount();
+            if (games == 0) {
+                System.out.println("Arquivo vazio");
+                return;
+            }
+            Random random = new Random(1);
+            long sum = 0;
+            int reads = 1_000_000;
+            long start = System.nanoTime();
+            for (int i = 0; i < reads; i++) {
+                int game = random.nextInt(games);
+                int plies = archive.getPlies(game);
+                if (plies > 0) {
+                    sum += archive.getMove(game, random.nextInt(plies));
+                }
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.printf("getMove: %.1f ns%n", (double) nanos / reads);
+
+            int positions = Math.min(10_000, games * 10);
+            long plies = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < positions; i++) {
+                int game = random.nextInt(games);
+                int ply = random.nextInt(archive.getPlies(game) + 1);
+                sum += archive.toPosition(game, ply).getHash();
+                plies += ply;
+            }
+            nanos = System.nanoTime() - start;
+            System.out.printf("toPosition: %.1f us  Lances/s: %.0f  (%d)%n", nanos / 1e3 / positions,
+                    plies * 1e9 / nanos, sum & 1);
+        }
+    }
+}
@@ -4,25 +4,96 @@ import chess.ChessException;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.ChessPosition;
+import chess.Color;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchResult;
+import chess.tablebase.Tablebase;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         Locale.setDefault(Locale.US);
         Scanner sc = new Scanner(System.in);
 
-        ChessMatch chessMatch = new ChessMatch();
+        //--fen "<fen>": começa da posição dada
+        //--cpu [segundos] [threads]: o computador joga com as pretas
+        //--tb <arquivo>: finais de K+D, K+T e K+P contra K pela tablebase (gera o arquivo se não existir)
+        ChessMatch chessMatch = null;
+        ParallelSearch computer = null;
+        Tablebase tablebase = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--fen") && i + 1 < args.length) {
+                chessMatch = ChessMatch.fromFen(args[++i]);
+            } else if (args[i].equals("--cpu")) {
+                double seconds = i + 1 < args.length && !args[i + 1].startsWith("--") ? Double.parseDouble(args[++i]) : 1;
+                int threads = i + 1 < args.length && !args[i + 1].startsWith("--") ? Integer.parseInt(args[++i]) : 1;
+                computer = new ParallelSearch(threads);
+                computer.setTimeLimit((long) (seconds * 1000));
+            } else if (args[i].equals("--tb") && i + 1 < args.length) {
+                Path file = Paths.get(args[++i]);
+                if (!Files.exists(file)) {
+                    Tablebase.generate(file);
+                }
+                tablebase = Tablebase.open(file);
+            }
+        }
+        if (computer != null) {
+            computer.setTablebase(tablebase);
+        }
+        if (chessMatch == null) {
+            chessMatch = new ChessMatch();
+        }
         List<ChessPiece> captured = new ArrayList<>();
+        String lastComputerMove = null;
 
-        while(!chessMatch.getCheckMate()) {
+        while(!chessMatch.getResult().isOver()) {
             try {
                 UI.clearScreen();
                 UI.printMatch(chessMatch,captured);
+                if (lastComputerMove != null) {
+                    System.out.println("Computador jogou: " + lastComputerMove);
+                }
+                if (tablebase != null) {
+                    int value = tablebase.probe(chessMatch.copyPosition());
+                    if (value != Tablebase.UNKNOWN) {
+                        System.out.println("Tablebase: " + Tablebase.describe(value));
+                    }
+                }
+
+                if (computer != null && chessMatch.getCurrantPlayer() == Color.BLACK) {
+                    SearchResult result = computer.search(chessMatch);
+                    ChessPiece capturedPiece = chessMatch.performChessMove(result.getBestMove());
+                    if(capturedPiece != null){
+                        captured.add(capturedPiece);
+                    }
+                    lastComputerMove = result.toString();
+                    continue;
+                }
 
                 System.out.println();
-                System.out.print("Peça: ");
-                ChessPosition source = UI.readChessPosition(sc);
+                System.out.print("Peça (ou \"voltar\"): ");
+                String line = sc.nextLine();
+                if (line.trim().equalsIgnoreCase("voltar")) {
+                    //Contra o computador volta também a resposta dele, se ela já existir
+                    int plies = Math.min(computer != null ? 2 : 1, chessMatch.getMoveCount());
+                    if (plies == 0) {
+                        throw new ChessException("Não há lance para desfazer");
+                    }
+                    for (int i = 0; i < plies; i++) {
+                        ChessPiece restored = chessMatch.undoMove();
+                        if (restored != null) {
+                            captured.remove(captured.size() - 1);
+                        }
+                    }
+                    lastComputerMove = null;
+                    continue;
+                }
+                ChessPosition source = UI.readChessPosition(line);
 
                 boolean[][] possibleMoves = chessMatch.possibleMoves(source);
                 UI.clearScreen();
@@ -58,5 +129,8 @@ public class Main {
         UI.clearScreen();
         UI.printMatch(chessMatch,captured);
         sc.close();
+        if (tablebase != null) {
+            tablebase.close();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,167 @@
+package application;
+
+import chess.server.LatencyHistogram;
+import chess.server.MatchServer;
+import chess.server.ServerStats;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public class MatchServerMain {
+    private static final int MAX_PLIES = 200;
+
+    public static void main(String[] args) throws Exception {
+        Locale.setDefault(Locale.US);
+        if (args.length >= 1 && args[0].equals("serve")) {
+            int port = args.length >= 2 ? Integer.parseInt(args[1]) : 7777;
+            int shards = args.length >= 3 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            MatchServer server = new MatchServer(shards);
+            server.listen(port);
+            System.out.println("Servidor de partidas em 127.0.0.1:" + server.getPort() + " com " + shards + " shards");
+            Thread.currentThread().join();
+        } else if (args.length >= 1 && args[0].equals("load")) {
+            int games = args.length >= 2 ? Integer.parseInt(args[1]) : 10_000;
+            int connections = args.length >= 3 ? Integer.parseInt(args[2]) : 32;
+            int shards = args.length >= 4 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            long idleMillis = args.length >= 5 ? Long.parseLong(args[4]) : 2_000;
+            int seconds = args.length >= 6 ? Integer.parseInt(args[5]) : 20;
+            load(games, connections, shards, idleMillis, seconds);
+        } else {
+            System.out.println("Uso: java application.MatchServerMain serve [porta] [shards]");
+            System.out.println("     java application.MatchServerMain load [partidas] [conexoes] [shards] [ociosidade ms] [segundos]");
+        }
+    }
+
+    //Sobe o servidor na mesma JVM e joga lances aleatórios em todas as partidas pelo socket
+    private static void load(int games, int connections, int shards, long idleMillis, int seconds) throws Exception {
+        try (MatchServer server = new MatchServer(shards, idleMillis, 4096)) {
+            server.listen(0);
+            long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+            List<Client> clients = new ArrayList<>(connections);
+            List<Thread> threads = new ArrayList<>(connections);
+            for (int i = 0; i < connections; i++) {
+                int share = games / connections + (i < games % connections ? 1 : 0);
+                Client client = new Client(server.getPort(), share, i, deadline);
+                clients.add(client);
+                Thread thread = new Thread(client, "load-" + i);
+                threads.add(thread);
+                thread.start();
+            }
+
+            long start = System.nanoTime();
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(Math.min(5_000, Math.max(1, (deadline - System.nanoTime()) / 1_000_000)));
+                System.out.printf("%5.1f s  %s%n", (System.nanoTime() - start) / 1e9, server.getStats());
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            LatencyHistogram latency = new LatencyHistogram();
+            long errors = 0;
+            for (Client client : clients) {
+                latency.merge(client.latency);
+                errors += client.errors;
+            }
+            ServerStats stats = server.getStats();
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            System.out.println();
+            System.out.printf("Partidas: %d  Conexões: %d  Shards: %d  Erros: %d%n", games, connections, shards, errors);
+            System.out.printf("Lances: %d  Lances/s: %.0f%n", stats.getMoves(), stats.getMoves() / elapsed);
+            System.out.println("Servidor (fila + lance): " + stats.getMoveLatency().summary());
+            System.out.println("Cliente (ida e volta):   " + latency.summary());
+            printMemory(stats);
+
+            //Sem carga as sessões passam do tempo de ociosidade e são compactadas na próxima varredura
+            Thread.sleep(idleMillis + 2_000);
+            printMemory(server.getStats());
+        }
+    }
+
+    private static void printMemory(ServerStats stats) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.out.printf("Sessões: %d  Em memória: %d  Heap: %d MB%n", stats.getSessions(), stats.getLiveSessions(),
+                (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+    }
+
+    //Uma conexão que reveza as suas partidas: pede os lances legais e joga um deles ao acaso
+    private static class Client implements Runnable {
+        private final int port;
+        private final long[] ids;
+        private final int[] plies;
+        private final Random random;
+        private final long deadline;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private long errors;
+
+        Client(int port, int games, int seed, long deadline) {
+            this.port = port;
+            ids = new long[games];
+            plies = new int[games];
+            random = new Random(seed);
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                socket.setTcpNoDelay(true);
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = Long.parseLong(call(in, out, "NEW").substring(3));
+                }
+                while (System.nanoTime() < deadline) {
+                    for (int i = 0; i < ids.length && System.nanoTime() < deadline; i++) {
+                        play(in, out, i);
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Erro na conexão de carga", e);
+            }
+        }
+
+        private void play(BufferedReader in, BufferedWriter out, int game) throws IOException {
+            String[] legal = call(in, out, "MOVES " + ids[game]).split(" ");
+            if (legal.length < 2) {
+                errors++;
+                return;
+            }
+            String move = legal[1 + random.nextInt(legal.length - 1)];
+            long start = System.nanoTime();
+            String reply = call(in, out, "MOVE " + ids[game] + " " + move);
+            latency.record(System.nanoTime() - start);
+            if (reply.startsWith("ERR")) {
+                errors++;
+            }
+            //Partida acabada ou longa demais: troca por uma nova
+            if (!reply.endsWith("PLAYING") && !reply.endsWith("CHECK") || ++plies[game] >= MAX_PLIES) {
+                call(in, out, "CLOSE " + ids[game]);
+                ids[game] = Long.parseLong(call(in, out, "NEW").substring(3));
+                plies[game] = 0;
+            }
+        }
+
+        private static String call(BufferedReader in, BufferedWriter out, String request) throws IOException {
+            out.write(request);
+            out.newLine();
+            out.flush();
+            String reply = in.readLine();
+            if (reply == null) {
+                throw new IOException("Servidor fechou a conexão");
+            }
+            return reply;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package application;
+
+import chess.BitBoard;
+import chess.Fen;
+import chess.engine.Perft;
+
+import java.util.Locale;
+
+public class PerftSuite {
+    //Posições de referência: FEN, profundidade e número de folhas conhecido
+    private static final Object[][] SUITE = {
+            {Fen.INITIAL, 4, 197281L},
+            {Fen.INITIAL, 5, 4865609L},
+            {Fen.INITIAL, 6, 119060324L},
+            {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 3, 97862L},
+            {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 4, 4085603L},
+            {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 5, 193690690L},
+            {"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 5, 674624L},
+            {"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 6, 11030083L},
+            {"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 4, 422333L},
+            {"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 5, 15833292L},
+            {"r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1", 4, 422333L},
+            {"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 3, 62379L},
+            {"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 4, 2103487L},
+            {"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", 3, 89890L},
+            {"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", 4, 3894594L},
+            //En passant
+            {"3k4/3p4/8/K1P4r/8/8/8/8 b - - 0 1", 6, 1134888L},
+            {"8/8/4k3/8/2p5/8/B2P2K1/8 w - - 0 1", 6, 1015133L},
+            {"8/8/1k6/2b5/2pP4/8/5K2/8 b - d3 0 1", 6, 1440467L},
+            //Roque
+            {"5k2/8/8/8/8/8/8/4K2R w K - 0 1", 6, 661072L},
+            {"3k4/8/8/8/8/8/8/R3K3 w Q - 0 1", 6, 803711L},
+            {"r3k2r/1b4bq/8/8/8/8/7B/R3K2R w KQkq - 0 1", 4, 1274206L},
+            {"r3k2r/8/3Q4/8/8/5q2/8/R3K2R b KQkq - 0 1", 4, 1720476L},
+            //Promoção
+            {"2K2r2/4P3/8/8/8/8/8/3k4 w - - 0 1", 6, 3821001L},
+            {"4k3/1P6/8/8/8/8/K7/8 w - - 0 1", 6, 217342L},
+            {"8/P1k5/K7/8/8/8/8/8 w - - 0 1", 6, 92683L},
+            //Xeque descoberto, xeque duplo, afogamento
+            {"8/8/1P2K3/8/2n5/1q6/8/5k2 b - - 0 1", 5, 1004658L},
+            {"8/8/2k5/5q2/5n2/8/5K2/8 b - - 0 1", 4, 23527L},
+            {"K1k5/8/P7/8/8/8/8/8 w - - 0 1", 6, 2217L},
+            {"8/k1P5/8/1K6/8/8/8/8 w - - 0 1", 7, 567584L},
+    };
+
+    public static void main(String[] args) {
+        Locale.setDefault(Locale.US);
+        if (args.length >= 2) {
+            divide(args[0], Integer.parseInt(args[1]));
+        } else {
+            long limit = args.length == 1 && args[0].equals("--full") ? Long.MAX_VALUE : 5_000_000L;
+            runSuite(limit);
+        }
+    }
+
+    private static void divide(String fen, int depth) {
+        BitBoard board = new BitBoard();
+        Fen.load(board, fen);
+        long start = System.nanoTime();
+        long nodes = new Perft(depth).divide(board, depth, System.out);
+        report(nodes, System.nanoTime() - start);
+    }
+
+    private static void runSuite(long limit) {
+        BitBoard board = new BitBoard();
+        Perft perft = new Perft(16);
+        long totalNodes = 0;
+        long totalTime = 0;
+        for (Object[] test : SUITE) {
+            String fen = (String) test[0];
+            int depth = (Integer) test[1];
+            long expected = (Long) test[2];
+            if (expected > limit) {
+                continue;
+            }
+            Fen.load(board, fen);
+            long start = System.nanoTime();
+            long nodes = perft.count(board, depth);
+            totalTime += System.nanoTime() - start;
+            totalNodes += nodes;
+            if (nodes != expected) {
+                System.out.println("FALHOU " + fen + " profundidade " + depth + ": esperado " + expected + ", obtido " + nodes);
+                System.exit(1);
+            }
+            System.out.println("ok  " + depth + "  " + fen);
+        }
+        report(totalNodes, totalTime);
+    }
+
+    private static void report(long nodes, long nanos) {
+        System.out.println();
+        System.out.printf("Nós: %d  Tempo: %.3f s  Nós/s: %.0f%n", nodes, nanos / 1e9, nodes / (nanos / 1e9));
+    }
+}
@@ -0,0 +1,34 @@
+package application;
+
+import chess.io.PgnReplayer;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+public class PgnReplay {
+    public static void main(String[] args) throws IOException {
+        Locale.setDefault(Locale.US);
+        if (args.length == 0) {
+            System.out.println("Uso: java application.PgnReplay <arquivo.pgn> [threads]");
+            return;
+        }
+        int threads = args.length >= 2 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        PgnReplayer replayer = new PgnReplayer(threads);
+        //Latin-1 nunca falha na decodificação; os lances são ASCII de qualquer jeito
+        try (Reader in = new InputStreamReader(new FileInputStream(args[0]), StandardCharsets.ISO_8859_1)) {
+            replayer.replay(in);
+        }
+
+        for (String error : replayer.getErrorMessages()) {
+            System.out.println("ERRO " + error);
+        }
+        System.out.printf("Partidas: %d  Lances: %d  Mates: %d  Erros: %d  Threads: %d%n", replayer.getGames(),
+                replayer.getMoves(), replayer.getCheckMates(), replayer.getErrors(), threads);
+        System.out.printf("Tempo: %.3f s  Partidas/s: %.0f  Lances/s: %.0f%n", replayer.getNanos() / 1e9,
+                replayer.getGamesPerSecond(), replayer.getMovesPerSecond());
+    }
+}
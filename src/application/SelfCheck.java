@@ -0,0 +1,265 @@
+package application;
+
+import chess.BitBoard;
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Fen;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+//Verificações de consistência do tabuleiro, como o PerftSuite: sai com código 1 se algo falhar.
+//Sem argumento roda todas; com o nome de uma, só ela
+public class SelfCheck {
+    //Posições que a FEN descreve mas que não podem acontecer numa partida
+    private static final String[] ILLEGAL_FENS = {
+            "4k2P/8/8/8/8/8/8/4K3 w - - 0 1",
+            "4k3/8/8/8/8/8/8/p3K3 b - - 0 1",
+            "4k3/4R3/8/8/8/8/8/4K3 w - - 0 1",
+            "4k3/8/8/8/8/8/3P4/4K3 w - c3 0 1",
+            "4k3/8/8/8/8/8/8/4K3 b - e6 0 1",
+            "4k3/8/3n4/3pP3/8/8/8/4K3 w - d6 0 1",
+            "4k3/8/8/3NP3/8/8/8/4K3 w - d6 0 1",
+            "4k3/8/8/4P3/8/8/8/4K3 w - d6 0 1",
+            "4k3/8/8/8/8/8/8/4K3 w - - 131072 1",
+    };
+
+    public static void main(String[] args) {
+        Locale.setDefault(Locale.US);
+        String only = args.length >= 1 ? args[0] : null;
+        int failed = 0;
+        if (only == null || only.equals("hash")) {
+            failed += incrementalHash();
+        }
+        if (only == null || only.equals("eval")) {
+            failed += incrementalEvaluation(new Random(1), 200);
+        }
+        if (only == null || only.equals("undo")) {
+            failed += undoRoundTrip(new Random(7), 300);
+        }
+        if (only == null || only.equals("fen")) {
+            failed += fenRoundTrip(new Random(11), 300);
+        }
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    //A chave Zobrist mantida lance a lance tem de ser igual a computeHash em cada nó de um perft,
+    //antes e depois de cada unmakeMove; as posições cobrem roque, en passant e promoção
+    private static int incrementalHash() {
+        String[] fens = {
+                Fen.INITIAL,
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        };
+        long[] counts = new long[2];
+        BitBoard board = new BitBoard();
+        MoveList[] lists = new MoveList[4];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+        for (String fen : fens) {
+            Fen.load(board, fen);
+            checkHash(board, lists, lists.length - 1, counts);
+        }
+        return report("hash", (int) counts[1], (int) counts[0]);
+    }
+
+    private static void checkHash(BitBoard board, MoveList[] lists, int depth, long[] counts) {
+        counts[0]++;
+        if (board.getHash() != board.computeHash()) {
+            counts[1]++;
+        }
+        if (depth < 0) {
+            return;
+        }
+        MoveList moves = lists[depth];
+        MoveGenerator.generate(board, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            checkHash(board, lists, depth - 1, counts);
+            board.unmakeMove(move);
+            counts[0]++;
+            if (board.getHash() != board.computeHash()) {
+                counts[1]++;
+            }
+        }
+    }
+
+    //Material, tabelas de casas, fase e hash dos peões mantidos por makeMove/unmakeMove
+    //têm de bater com os de um tabuleiro montado do zero, depois de cada lance e de cada volta
+    private static int incrementalEvaluation(Random random, int games) {
+        int bad = 0;
+        int total = 0;
+        BitBoard board = new BitBoard();
+        BitBoard fresh = new BitBoard();
+        MoveList moves = new MoveList();
+        for (int game = 0; game < games; game++) {
+            Fen.load(board, Fen.INITIAL);
+            int[] played = new int[200];
+            int plies = 0;
+            while (plies < played.length) {
+                MoveGenerator.generate(board, moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                played[plies] = moves.get(random.nextInt(moves.size()));
+                board.makeMove(played[plies++]);
+                total++;
+                if (!sameEvaluation(board, fresh)) {
+                    bad++;
+                }
+            }
+            while (plies > 0) {
+                board.unmakeMove(played[--plies]);
+                total++;
+                if (!sameEvaluation(board, fresh)) {
+                    bad++;
+                }
+            }
+        }
+        return report("eval", bad, total);
+    }
+
+    private static boolean sameEvaluation(BitBoard board, BitBoard fresh) {
+        fresh.clear();
+        for (int square = 0; square < 64; square++) {
+            if (board.pieceAt(square) != BitBoard.EMPTY) {
+                fresh.put(square, board.pieceAt(square));
+            }
+        }
+        return board.getMidgameScore() == fresh.getMidgameScore() && board.getEndgameScore() == fresh.getEndgameScore()
+                && board.getPhase() == fresh.getPhase() && board.getPawnHash() == fresh.getPawnHash();
+    }
+
+    //Desfaz partidas aleatórias lance a lance e depois refaz todas: cada posição tem de voltar igual,
+    //com as mesmas peças (os mesmos objetos ao desfazer) e a peça capturada devolvida por undoMove
+    private static int undoRoundTrip(Random random, int games) {
+        int bad = 0;
+        int total = 0;
+        MoveList moves = new MoveList();
+        for (int game = 0; game < games; game++) {
+            ChessMatch match = new ChessMatch();
+            List<String> before = new ArrayList<>();
+            List<String> after = new ArrayList<>();
+            List<ChessPiece> captured = new ArrayList<>();
+            List<Integer> played = new ArrayList<>();
+            List<String> promotions = new ArrayList<>();
+            while (before.size() < 250 && !match.getCheckMate() && !match.getStalemate()) {
+                before.add(describe(match, true));
+                match.getLegalMoves(moves);
+                int move = moves.get(random.nextInt(moves.size()));
+                played.add(move);
+                captured.add(match.performChessMove(move));
+                String promotion = null;
+                if (match.getPromoted() != null && random.nextBoolean()) {
+                    promotion = String.valueOf("NBR".charAt(random.nextInt(3)));
+                    match.replacePromotedPiece(promotion);
+                }
+                promotions.add(promotion);
+                after.add(describe(match, false));
+            }
+
+            for (int ply = before.size() - 1; ply >= 0; ply--) {
+                ChessPiece restored = match.undoMove();
+                total++;
+                if (restored != captured.get(ply) || !describe(match, true).equals(before.get(ply))) {
+                    bad++;
+                    if (bad <= 3) {
+                        System.out.println("  desfazer diferente: partida " + game + ", lance " + ply);
+                    }
+                }
+            }
+            for (int ply = 0; ply < played.size(); ply++) {
+                match.performChessMove(played.get(ply));
+                if (promotions.get(ply) != null) {
+                    match.replacePromotedPiece(promotions.get(ply));
+                }
+                total++;
+                if (!describe(match, false).equals(after.get(ply))) {
+                    bad++;
+                    if (bad <= 3) {
+                        System.out.println("  refazer diferente: partida " + game + ", lance " + ply);
+                    }
+                }
+            }
+        }
+        return report("undo", bad, total);
+    }
+
+    //Cada posição de partidas aleatórias volta igual depois de FEN -> ChessMatch -> FEN
+    private static int fenRoundTrip(Random random, int games) {
+        int bad = 0;
+        int total = 0;
+        MoveList moves = new MoveList();
+        for (int game = 0; game < games; game++) {
+            ChessMatch match = new ChessMatch();
+            for (int ply = 0; ply < 250 && !match.getResult().isOver(); ply++) {
+                String fen = match.toFen();
+                ChessMatch copy = ChessMatch.fromFen(fen);
+                total++;
+                if (!copy.toFen().equals(fen) || !describe(copy, false).equals(describe(match, false))) {
+                    bad++;
+                    if (bad <= 3) {
+                        System.out.println("  diferente: " + fen);
+                    }
+                }
+                match.getLegalMoves(moves);
+                match.performChessMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+        for (String fen : ILLEGAL_FENS) {
+            total++;
+            try {
+                ChessMatch.fromFen(fen);
+                bad++;
+                System.out.println("  aceitou posição ilegal: " + fen);
+            } catch (ChessException e) {
+                //esperado
+            }
+        }
+        return report("fen", bad, total);
+    }
+
+    //Tudo o que a partida expõe; identity compara também os objetos das peças
+    private static String describe(ChessMatch match, boolean identity) {
+        StringBuilder sb = new StringBuilder();
+        for (ChessPiece[] row : match.getPieces()) {
+            for (ChessPiece piece : row) {
+                if (piece == null) {
+                    sb.append('-');
+                } else {
+                    sb.append(piece).append(piece.getColor());
+                    if (identity) {
+                        sb.append('@').append(System.identityHashCode(piece)).append('#').append(piece.getMoveCount());
+                    }
+                }
+                sb.append(',');
+            }
+        }
+        BitBoard position = match.copyPosition();
+        sb.append(match.getHash()).append(' ').append(position.computeHash()).append(' ')
+                .append(match.getCurrantPlayer()).append(' ').append(match.getTurn()).append(' ')
+                .append(match.getCheck()).append(match.getCheckMate()).append(match.getStalemate()).append(' ')
+                .append(position.getCastlingRights()).append(' ').append(position.getEnPassantSquare()).append(' ')
+                .append(match.getHalfMoveClock()).append(' ').append(match.getLegalMoves().size());
+        return sb.toString();
+    }
+
+    private static int report(String name, int bad, int total) {
+        if (bad > 0) {
+            System.out.println("FALHOU " + name + ": " + bad + " de " + total);
+            return 1;
+        }
+        System.out.println("ok  " + name + "  " + total);
+        return 0;
+    }
+}
@@ -0,0 +1,107 @@
+package application;
+
+import chess.BitBoard;
+import chess.Fen;
+import chess.Move;
+import chess.engine.Search;
+import chess.engine.SearchResult;
+import chess.tablebase.Tablebase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+
+public class TablebaseTool {
+    public static void main(String[] args) throws IOException {
+        Locale.setDefault(Locale.US);
+        if (args.length >= 2 && args[0].equals("gen")) {
+            generate(Paths.get(args[1]));
+        } else if (args.length >= 3 && args[0].equals("probe")) {
+            probe(Paths.get(args[1]), args[2]);
+        } else if (args.length >= 2 && args[0].equals("bench")) {
+            bench(Paths.get(args[1]), args.length >= 3 ? Integer.parseInt(args[2]) : 1_000_000);
+        } else {
+            System.out.println("Uso: java application.TablebaseTool gen <arquivo>");
+            System.out.println("     java application.TablebaseTool probe <arquivo> \"<fen>\"");
+            System.out.println("     java application.TablebaseTool bench <arquivo> [consultas]");
+        }
+    }
+
+    private static void generate(Path file) throws IOException {
+        long start = System.nanoTime();
+        Tablebase.generate(file);
+        System.out.printf("Tablebase: %d bytes  Tempo: %.3f s%n", Files.size(file), (System.nanoTime() - start) / 1e9);
+    }
+
+    private static void probe(Path file, String fen) throws IOException {
+        try (Tablebase tablebase = Tablebase.open(file)) {
+            BitBoard board = new BitBoard();
+            Fen.load(board, fen);
+            System.out.println(Tablebase.describe(tablebase.probe(board)));
+            Search search = new Search();
+            search.setTablebase(tablebase);
+            SearchResult result = search.search(board);
+            if (result.getBestMove() != Move.NONE) {
+                System.out.println("Melhor lance: " + result);
+            }
+        }
+    }
+
+    //Consultas em posições sorteadas com cache pequeno e com cache que cabe tudo,
+    //e a mesma análise de final feita pela busca com e sem a tabela
+    private static void bench(Path file, int probes) throws IOException {
+        BitBoard[] positions = randomPositions(4096, new Random(1));
+        for (int blocks : new int[] {4, 32, 192}) {
+            try (Tablebase tablebase = Tablebase.open(file, blocks)) {
+                long start = System.nanoTime();
+                long sum = 0;
+                for (int i = 0; i < probes; i++) {
+                    sum += tablebase.probe(positions[i & (positions.length - 1)]);
+                }
+                long nanos = System.nanoTime() - start;
+                System.out.printf("cache %3d blocos: %,d consultas/s  acertos %d  faltas %d  (%d)%n", blocks,
+                        probes * 1_000_000_000L / Math.max(nanos, 1), tablebase.getCacheHits(),
+                        tablebase.getCacheMisses(), sum);
+            }
+        }
+
+        String fen = "8/8/8/4k3/8/8/8/R3K3 w - - 0 1";
+        BitBoard board = new BitBoard();
+        Fen.load(board, fen);
+        Search search = new Search();
+        search.setTimeLimit(5000);
+        SearchResult plain = search.search(board);
+        System.out.println("Busca sem tabela: " + plain + " em " + plain.getMillis() + " ms");
+        try (Tablebase tablebase = Tablebase.open(file)) {
+            search = new Search();
+            search.setTablebase(tablebase);
+            SearchResult probed = search.search(board);
+            System.out.println("Busca com tabela: " + probed + " em " + probed.getMillis() + " ms");
+        }
+    }
+
+    private static BitBoard[] randomPositions(int count, Random random) {
+        int[] types = {BitBoard.QUEEN, BitBoard.ROOK, BitBoard.PAWN};
+        BitBoard[] positions = new BitBoard[count];
+        for (int i = 0; i < count; ) {
+            int strong = random.nextInt(2);
+            int strongKing = random.nextInt(64);
+            int weakKing = random.nextInt(64);
+            int square = 8 + random.nextInt(48);
+            int type = types[random.nextInt(types.length)];
+            if (strongKing == weakKing || strongKing == square || weakKing == square) {
+                continue;
+            }
+            BitBoard board = new BitBoard();
+            board.put(strongKing, BitBoard.piece(strong, BitBoard.KING));
+            board.put(weakKing, BitBoard.piece(strong ^ 1, BitBoard.KING));
+            board.put(square, BitBoard.piece(strong, type));
+            board.setSideToMove(random.nextInt(2));
+            positions[i++] = board;
+        }
+        return positions;
+    }
+}
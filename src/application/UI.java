@@ -39,8 +39,11 @@ public class UI {
         System.out.flush();
     }
         public static ChessPosition readChessPosition(Scanner sc){
+        return readChessPosition(sc.nextLine());
+    }
+
+    public static ChessPosition readChessPosition(String s){
         try{
-            String s = sc.nextLine();
             char column = s.charAt(0);
             int row = Integer.parseInt(s.substring(1));
             return new ChessPosition(column, row);
@@ -55,7 +58,9 @@ public class UI {
         printCapturedPieces(captured);
         System.out.println();
         System.out.println("Turno: " + ch.getTurn() );
-        if(!ch.getCheckMate()) {
+        if(ch.getResult().isDraw()) {
+            System.out.println("EMPATE! " + ch.getResult().getDescription() + ".");
+        }else if(!ch.getCheckMate()) {
             System.out.println("Aguardando jogador: " + ch.getCurrantPlayer());
             if (ch.getCheck()) {
                 System.out.println("CHECK!");
@@ -58,6 +58,25 @@ public class Board {
         return aux;
     }
 
+    //Bit de cada casa nas máscaras de lances; por isso as máscaras só servem para até 64 casas
+    public int index(int row,int column){
+        if(rows * columns > 64){
+            throw new BoardException("Máscaras de lances só suportam tabuleiros de até 64 casas");
+        }
+        return row * columns + column;
+    }
+
+    //Visão em matriz de uma máscara de casas
+    public boolean[][] toMatrix(long mask){
+        boolean[][] mat = new boolean[rows][columns];
+        for(int i=0;i<rows;i++){
+            for(int j=0;j<columns;j++){
+                mat[i][j] = (mask & (1L << index(i,j))) != 0;
+            }
+        }
+        return mat;
+    }
+
     private boolean positionExists(int row,int column){
         return row >= 0 && row < rows && column >=0 && column < columns;
     }
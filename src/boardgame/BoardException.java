@@ -1,6 +1,8 @@
 package boardgame;
 
 public class BoardException extends RuntimeException{
+    private static final long serialVersionUID = 1L;
+
     public BoardException(String message) {
         super(message);
     }
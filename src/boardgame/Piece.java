@@ -12,21 +12,19 @@ public abstract class Piece {
         return board;
     }
 
-    public abstract boolean[][] possibleMoves();
+    //Um bit por destino possível, no bit board.index(linha, coluna)
+    public abstract long possibleMovesMask();
+
+    //Visão em matriz da máscara, para quem precisa desenhar o tabuleiro
+    public boolean[][] possibleMoves(){
+        return board.toMatrix(possibleMovesMask());
+    }
 
     public boolean possibleMove(Position position){
-        return possibleMoves()[position.getRows()][position.getColumns()];
+        return (possibleMovesMask() & (1L << board.index(position.getRows(),position.getColumns()))) != 0;
     }
 
     public boolean isThereAnyPossibleMove(){
-        boolean[][] mat = possibleMoves();
-        for(int i=0;i< mat.length;i++){
-            for(int j=0;j< mat.length;j++){
-                if(mat[i][j]){
-                    return true;
-                }
-            }
-        }
-        return false;
+        return possibleMovesMask() != 0;
     }
 }
@@ -0,0 +1,54 @@
+package chess;
+
+import java.nio.charset.StandardCharsets;
+
+//Trecho de um byte[] ASCII visto como CharSequence, sem copiar; wrap reaproveita o objeto
+public final class AsciiSequence implements CharSequence {
+    private byte[] bytes;
+    private int offset;
+    private int length;
+
+    public AsciiSequence() {
+        this(new byte[0], 0, 0);
+    }
+
+    public AsciiSequence(byte[] bytes, int offset, int length) {
+        wrap(bytes, offset, length);
+    }
+
+    public AsciiSequence wrap(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException("Trecho fora do buffer: " + offset + "+" + length + " de " + bytes.length);
+        }
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Índice " + index + " fora do trecho de " + length);
+        }
+        return (char) (bytes[offset + index] & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Trecho inválido: " + start + ".." + end);
+        }
+        return new AsciiSequence(bytes, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,163 @@
+package chess;
+
+public final class Attacks {
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+
+    private static final Magic[] ROOK = new Magic[64];
+    private static final Magic[] BISHOP = new Magic[64];
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final long EDGES_FILES = BitBoard.FILE_A | BitBoard.FILE_H;
+    private static final long EDGES_RANKS = BitBoard.RANK_1 | BitBoard.RANK_8;
+
+    //Seed fixo: as mesmas magics são encontradas em toda inicialização
+    private static long seed = 0x2545F4914F6CDD1DL;
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            long bit = 1L << square;
+            KNIGHT[square] = BitBoard.knightAttacks(bit);
+            KING[square] = BitBoard.kingAttacks(bit);
+            PAWN[BitBoard.WHITE][square] = BitBoard.pawnAttacks(bit, BitBoard.WHITE);
+            PAWN[BitBoard.BLACK][square] = BitBoard.pawnAttacks(bit, BitBoard.BLACK);
+        }
+        for (int square = 0; square < 64; square++) {
+            ROOK[square] = findMagic(square, true);
+            BISHOP[square] = findMagic(square, false);
+        }
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                if (a == b) {
+                    continue;
+                }
+                long ends = (1L << a) | (1L << b);
+                if ((rook(a, 0) & (1L << b)) != 0) {
+                    BETWEEN[a][b] = rook(a, 1L << b) & rook(b, 1L << a);
+                    LINE[a][b] = (rook(a, 0) & rook(b, 0)) | ends;
+                } else if ((bishop(a, 0) & (1L << b)) != 0) {
+                    BETWEEN[a][b] = bishop(a, 1L << b) & bishop(b, 1L << a);
+                    LINE[a][b] = (bishop(a, 0) & bishop(b, 0)) | ends;
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    public static long pawn(int color, int square) {
+        return PAWN[color][square];
+    }
+
+    public static long rook(int square, long occupied) {
+        return ROOK[square].attacks(occupied);
+    }
+
+    public static long bishop(int square, long occupied) {
+        return BISHOP[square].attacks(occupied);
+    }
+
+    public static long queen(int square, long occupied) {
+        return ROOK[square].attacks(occupied) | BISHOP[square].attacks(occupied);
+    }
+
+    //Casas entre a e b (exclusive) quando estão na mesma linha, coluna ou diagonal
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    //Linha inteira que passa por a e b, ou 0 se não estiverem alinhadas
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    private static final class Magic {
+        private final long mask;
+        private final long magic;
+        private final int shift;
+        private final long[] table;
+
+        private Magic(long mask, long magic, int shift, long[] table) {
+            this.mask = mask;
+            this.magic = magic;
+            this.shift = shift;
+            this.table = table;
+        }
+
+        private long attacks(long occupied) {
+            return table[(int) (((occupied & mask) * magic) >>> shift)];
+        }
+    }
+
+    private static long slowAttacks(int square, long occupied, boolean rook) {
+        long bit = 1L << square;
+        return rook ? BitBoard.rookAttacks(bit, ~occupied) : BitBoard.bishopAttacks(bit, ~occupied);
+    }
+
+    private static long relevantMask(int square, boolean rook) {
+        long bit = 1L << square;
+        if (!rook) {
+            return BitBoard.bishopAttacks(bit, -1L) & ~(EDGES_FILES | EDGES_RANKS);
+        }
+        long rank = BitBoard.RANK_1 << (square & ~7);
+        long file = BitBoard.FILE_A << (square & 7);
+        return ((rank & ~EDGES_FILES) | (file & ~EDGES_RANKS)) & ~bit;
+    }
+
+    private static Magic findMagic(int square, boolean rook) {
+        long mask = relevantMask(square, rook);
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+        long[] occupancies = new long[size];
+        long[] reference = new long[size];
+
+        //Enumera todos os subconjuntos da máscara (carry-rippler)
+        long subset = 0;
+        for (int i = 0; i < size; i++) {
+            occupancies[i] = subset;
+            reference[i] = slowAttacks(square, subset, rook);
+            subset = (subset - mask) & mask;
+        }
+
+        long[] table = new long[size];
+        int[] epoch = new int[size];
+        for (int attempt = 1; ; attempt++) {
+            long magic = random() & random() & random();
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+            boolean failed = false;
+            for (int i = 0; i < size && !failed; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+                if (epoch[index] != attempt) {
+                    epoch[index] = attempt;
+                    table[index] = reference[i];
+                } else if (table[index] != reference[i]) {
+                    failed = true;
+                }
+            }
+            if (!failed) {
+                return new Magic(mask, magic, 64 - bits, table);
+            }
+        }
+    }
+
+    private static long random() {
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return seed * 0x2545F4914F6CDD1DL;
+    }
+}
@@ -0,0 +1,486 @@
+package chess;
+
+import boardgame.Position;
+
+import java.util.Arrays;
+
+public class BitBoard {
+    //Cores, na mesma ordem de Color
+    public static final int BLACK = 0;
+    public static final int WHITE = 1;
+
+    //Tipos de peça
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    public static final int EMPTY = -1;
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    //Direitos que continuam valendo depois que uma peça sai ou chega na casa
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+        CASTLING_MASK[0] = ALL_CASTLING & ~WHITE_QUEENSIDE;
+        CASTLING_MASK[4] = ALL_CASTLING & ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[7] = ALL_CASTLING & ~WHITE_KINGSIDE;
+        CASTLING_MASK[56] = ALL_CASTLING & ~BLACK_QUEENSIDE;
+        CASTLING_MASK[60] = ALL_CASTLING & ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[63] = ALL_CASTLING & ~BLACK_KINGSIDE;
+    }
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_4 = RANK_1 << 24;
+    public static final long RANK_5 = RANK_1 << 32;
+    public static final long RANK_8 = RANK_1 << 56;
+    public static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+
+    private final long[] pieces = new long[12];
+    private final long[] colors = new long[2];
+    private long occupied;
+    private final int[] squares = new int[64];
+    //Casa de cada rei, mantida por put/remove
+    private final int[] kingSquares = {EMPTY, EMPTY};
+
+    private int sideToMove = WHITE;
+    private int castlingRights;
+    private int enPassantSquare = EMPTY;
+    //Meios-lances desde a última captura ou lance de peão
+    private int halfMoveClock;
+    private long hash = Zobrist.castling(0);
+    private long pawnHash;
+
+    //Material e tabelas de posição, mantidos por put/remove (ver PieceSquareTables.pack)
+    private int score;
+    private int phase;
+
+    //Estado que o lance destrói, um int por lance: peça capturada, roque, en passant e relógio de 50 lances
+    private int[] history = new int[256];
+    private long[] hashHistory = new long[256];
+    private int ply;
+
+    //Mapa de ataques por cor, refeito só quando o tabuleiro muda
+    private final long[] attackMap = new long[2];
+    private int staleAttackMaps = 3;
+
+    public BitBoard() {
+        Arrays.fill(squares, EMPTY);
+    }
+
+    //Cópia independente, para cada thread trabalhar no seu próprio tabuleiro
+    public BitBoard(BitBoard other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, 12);
+        System.arraycopy(other.colors, 0, colors, 0, 2);
+        System.arraycopy(other.squares, 0, squares, 0, 64);
+        kingSquares[BLACK] = other.kingSquares[BLACK];
+        kingSquares[WHITE] = other.kingSquares[WHITE];
+        occupied = other.occupied;
+        sideToMove = other.sideToMove;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfMoveClock = other.halfMoveClock;
+        hash = other.hash;
+        pawnHash = other.pawnHash;
+        score = other.score;
+        phase = other.phase;
+        ply = other.ply;
+        history = other.history.clone();
+        hashHistory = other.hashHistory.clone();
+    }
+
+    public void clear() {
+        Arrays.fill(pieces, 0);
+        Arrays.fill(colors, 0);
+        Arrays.fill(squares, EMPTY);
+        Arrays.fill(kingSquares, EMPTY);
+        occupied = 0;
+        sideToMove = WHITE;
+        castlingRights = 0;
+        enPassantSquare = EMPTY;
+        halfMoveClock = 0;
+        hash = Zobrist.castling(0);
+        pawnHash = 0;
+        score = 0;
+        phase = 0;
+        ply = 0;
+        staleAttackMaps = 3;
+    }
+
+    public static int piece(int color, int type) {
+        return color * 6 + type;
+    }
+
+    public static int piece(Color color, int type) {
+        return piece(color.ordinal(), type);
+    }
+
+    public static int colorOf(int piece) {
+        return piece < 6 ? BLACK : WHITE;
+    }
+
+    public static int typeOf(int piece) {
+        return piece < 6 ? piece : piece - 6;
+    }
+
+    //Casa 0 = a1, casa 63 = h8
+    public static int square(int row, int column) {
+        return ((7 - row) << 3) | column;
+    }
+
+    public static int square(Position position) {
+        return square(position.getRows(), position.getColumns());
+    }
+
+    public static int row(int square) {
+        return 7 - (square >>> 3);
+    }
+
+    public static int column(int square) {
+        return square & 7;
+    }
+
+    public void put(int square, int piece) {
+        long bit = 1L << square;
+        pieces[piece] |= bit;
+        colors[colorOf(piece)] |= bit;
+        occupied |= bit;
+        squares[square] = piece;
+        hash ^= Zobrist.piece(piece, square);
+        if (typeOf(piece) == PAWN) {
+            pawnHash ^= Zobrist.piece(piece, square);
+        } else if (typeOf(piece) == KING) {
+            kingSquares[colorOf(piece)] = square;
+        }
+        score += PieceSquareTables.score(piece, square);
+        phase += PieceSquareTables.phase(piece);
+        staleAttackMaps = 3;
+    }
+
+    public int remove(int square) {
+        int piece = squares[square];
+        if (piece == EMPTY) {
+            return EMPTY;
+        }
+        long bit = ~(1L << square);
+        pieces[piece] &= bit;
+        colors[colorOf(piece)] &= bit;
+        occupied &= bit;
+        squares[square] = EMPTY;
+        hash ^= Zobrist.piece(piece, square);
+        if (typeOf(piece) == PAWN) {
+            pawnHash ^= Zobrist.piece(piece, square);
+        } else if (typeOf(piece) == KING && kingSquares[colorOf(piece)] == square) {
+            kingSquares[colorOf(piece)] = EMPTY;
+        }
+        score -= PieceSquareTables.score(piece, square);
+        phase -= PieceSquareTables.phase(piece);
+        staleAttackMaps = 3;
+        return piece;
+    }
+
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int us = sideToMove;
+
+        if (ply == history.length) {
+            history = Arrays.copyOf(history, ply * 2);
+            hashHistory = Arrays.copyOf(hashHistory, ply * 2);
+        }
+        hashHistory[ply] = hash;
+        int captured = remove(Move.isEnPassant(move) ? to ^ 8 : to);
+        history[ply++] = (captured + 1) | (castlingRights << 4) | ((enPassantSquare + 1) << 8) | (halfMoveClock << 15);
+
+        int piece = remove(from);
+        halfMoveClock = captured != EMPTY || typeOf(piece) == PAWN ? 0 : halfMoveClock + 1;
+        int promotion = Move.promotion(move);
+        put(to, promotion != 0 ? piece(us, promotion) : piece);
+
+        if (Move.isCastling(move)) {
+            boolean kingside = to > from;
+            put(kingside ? from + 1 : from - 1, remove(kingside ? from + 3 : from - 4));
+        }
+        int rights = castlingRights & CASTLING_MASK[from] & CASTLING_MASK[to];
+        hash ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+        castlingRights = rights;
+
+        //Só guarda a casa de en passant se algum peão puder capturar, para a chave não depender disso
+        hash ^= Zobrist.enPassant(enPassantSquare);
+        enPassantSquare = EMPTY;
+        if (Move.isDoublePush(move)) {
+            int square = (from + to) >>> 1;
+            if ((Attacks.pawn(us, square) & pieces(us ^ 1, PAWN)) != 0) {
+                enPassantSquare = square;
+                hash ^= Zobrist.enPassant(square);
+            }
+        }
+        sideToMove = us ^ 1;
+        hash ^= Zobrist.side();
+    }
+
+    public void unmakeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int us = sideToMove ^ 1;
+        int state = history[--ply];
+
+        int piece = remove(to);
+        put(from, Move.promotion(move) != 0 ? piece(us, PAWN) : piece);
+
+        if (Move.isCastling(move)) {
+            boolean kingside = to > from;
+            put(kingside ? from + 3 : from - 4, remove(kingside ? from + 1 : from - 1));
+        }
+        int captured = (state & 15) - 1;
+        if (captured != EMPTY) {
+            put(Move.isEnPassant(move) ? to ^ 8 : to, captured);
+        }
+        castlingRights = (state >>> 4) & 15;
+        enPassantSquare = ((state >>> 8) & 127) - 1;
+        halfMoveClock = state >>> 15;
+        sideToMove = us;
+        hash = hashHistory[ply];
+    }
+
+    public int pieceAt(int square) {
+        return squares[square];
+    }
+
+    public long pieces(int color, int type) {
+        return pieces[piece(color, type)];
+    }
+
+    public long colorBits(int color) {
+        return colors[color];
+    }
+
+    public long occupied() {
+        return occupied;
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(int sideToMove) {
+        if (this.sideToMove != sideToMove) {
+            hash ^= Zobrist.side();
+        }
+        this.sideToMove = sideToMove;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int castlingRights) {
+        hash ^= Zobrist.castling(this.castlingRights) ^ Zobrist.castling(castlingRights);
+        this.castlingRights = castlingRights;
+    }
+
+    //Casa atrás do peão que acabou de avançar duas casas, ou EMPTY
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int enPassantSquare) {
+        hash ^= Zobrist.enPassant(this.enPassantSquare) ^ Zobrist.enPassant(enPassantSquare);
+        this.enPassantSquare = enPassantSquare;
+    }
+
+    public int getHalfMoveClock() {
+        return halfMoveClock;
+    }
+
+    public void setHalfMoveClock(int halfMoveClock) {
+        this.halfMoveClock = halfMoveClock;
+    }
+
+    //Lances feitos desde que a posição foi montada
+    public int getPly() {
+        return ply;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    //Quantas vezes a posição atual já apareceu antes. Só olha até o último lance irreversível
+    //(o relógio de meio-lances) e só as posições com o mesmo lado para jogar
+    public int repetitions() {
+        int count = 0;
+        int limit = Math.max(ply - halfMoveClock, 0);
+        for (int i = ply - 4; i >= limit; i -= 2) {
+            if (hashHistory[i] == hash) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    //Nenhum lado consegue dar mate: reis sozinhos, uma peça menor, ou só bispos da mesma cor de casa
+    public boolean isInsufficientMaterial() {
+        long heavy = pieces(WHITE, PAWN) | pieces(BLACK, PAWN) | pieces(WHITE, ROOK) | pieces(BLACK, ROOK)
+                | pieces(WHITE, QUEEN) | pieces(BLACK, QUEEN);
+        if (heavy != 0) {
+            return false;
+        }
+        long knights = pieces(WHITE, KNIGHT) | pieces(BLACK, KNIGHT);
+        long bishops = pieces(WHITE, BISHOP) | pieces(BLACK, BISHOP);
+        if (Long.bitCount(knights | bishops) <= 1) {
+            return true;
+        }
+        return knights == 0 && ((bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0);
+    }
+
+    //Chave só dos peões, para o cache de estrutura de peões
+    public long getPawnHash() {
+        return pawnHash;
+    }
+
+    public int getMidgameScore() {
+        return PieceSquareTables.midgame(score);
+    }
+
+    public int getEndgameScore() {
+        return PieceSquareTables.endgame(score);
+    }
+
+    public int getPhase() {
+        return phase;
+    }
+
+    //Recalcula a chave do zero; a mantida por put/remove/makeMove deve ser igual
+    public long computeHash() {
+        long key = Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare);
+        if (sideToMove == BLACK) {
+            key ^= Zobrist.side();
+        }
+        for (int square = 0; square < 64; square++) {
+            if (squares[square] != EMPTY) {
+                key ^= Zobrist.piece(squares[square], square);
+            }
+        }
+        return key;
+    }
+
+    public int kingSquare(int color) {
+        int square = kingSquares[color];
+        if (square == EMPTY) {
+            throw new IllegalStateException("Não existe o Rei " + Color.values()[color] + " no tabuleiro");
+        }
+        return square;
+    }
+
+    //Todas as casas atacadas pelas peças de uma cor
+    public long attacks(int color) {
+        if ((staleAttackMaps & (1 << color)) != 0) {
+            attackMap[color] = attacks(color, occupied);
+            staleAttackMaps &= ~(1 << color);
+        }
+        return attackMap[color];
+    }
+
+    public long attacks(int color, long occupied) {
+        long attacks = pawnAttacks(pieces(color, PAWN), color);
+        long knights = pieces(color, KNIGHT);
+        while (knights != 0) {
+            attacks |= Attacks.knight(Long.numberOfTrailingZeros(knights));
+            knights &= knights - 1;
+        }
+        long bishops = pieces(color, BISHOP) | pieces(color, QUEEN);
+        while (bishops != 0) {
+            attacks |= Attacks.bishop(Long.numberOfTrailingZeros(bishops), occupied);
+            bishops &= bishops - 1;
+        }
+        long rooks = pieces(color, ROOK) | pieces(color, QUEEN);
+        while (rooks != 0) {
+            attacks |= Attacks.rook(Long.numberOfTrailingZeros(rooks), occupied);
+            rooks &= rooks - 1;
+        }
+        long king = pieces(color, KING);
+        if (king != 0) {
+            attacks |= Attacks.king(Long.numberOfTrailingZeros(king));
+        }
+        return attacks;
+    }
+
+    //Procura atacantes a partir da casa alvo, sem percorrer as peças da outra cor
+    public boolean isAttacked(int square, int byColor) {
+        return (Attacks.pawn(byColor ^ 1, square) & pieces(byColor, PAWN)) != 0
+                || (Attacks.knight(square) & pieces(byColor, KNIGHT)) != 0
+                || (Attacks.king(square) & pieces(byColor, KING)) != 0
+                || (Attacks.bishop(square, occupied) & (pieces(byColor, BISHOP) | pieces(byColor, QUEEN))) != 0
+                || (Attacks.rook(square, occupied) & (pieces(byColor, ROOK) | pieces(byColor, QUEEN))) != 0;
+    }
+
+    public long attackersTo(int square, int byColor, long occupied) {
+        return (Attacks.pawn(byColor ^ 1, square) & pieces(byColor, PAWN))
+                | (Attacks.knight(square) & pieces(byColor, KNIGHT))
+                | (Attacks.king(square) & pieces(byColor, KING))
+                | (Attacks.bishop(square, occupied) & (pieces(byColor, BISHOP) | pieces(byColor, QUEEN)))
+                | (Attacks.rook(square, occupied) & (pieces(byColor, ROOK) | pieces(byColor, QUEEN)));
+    }
+
+    public long checkers(int color) {
+        return attackersTo(kingSquare(color), color ^ 1, occupied);
+    }
+
+    public static long pawnAttacks(long pawns, int color) {
+        if (color == WHITE) {
+            return ((pawns << 7) & ~FILE_H) | ((pawns << 9) & ~FILE_A);
+        }
+        return ((pawns >>> 9) & ~FILE_H) | ((pawns >>> 7) & ~FILE_A);
+    }
+
+    public static long knightAttacks(long knights) {
+        long l1 = (knights >>> 1) & ~FILE_H;
+        long l2 = (knights >>> 2) & ~(FILE_H | FILE_H >>> 1);
+        long r1 = (knights << 1) & ~FILE_A;
+        long r2 = (knights << 2) & ~(FILE_A | FILE_A << 1);
+        long h1 = l1 | r1;
+        long h2 = l2 | r2;
+        return (h1 << 16) | (h1 >>> 16) | (h2 << 8) | (h2 >>> 8);
+    }
+
+    public static long kingAttacks(long kings) {
+        long row = kings | ((kings << 1) & ~FILE_A) | ((kings >>> 1) & ~FILE_H);
+        return (row | (row << 8) | (row >>> 8)) & ~kings;
+    }
+
+    public static long rookAttacks(long rooks, long empty) {
+        return fill(rooks, empty, 8, -1L) | fill(rooks, empty, -8, -1L)
+                | fill(rooks, empty, 1, ~FILE_A) | fill(rooks, empty, -1, ~FILE_H);
+    }
+
+    public static long bishopAttacks(long bishops, long empty) {
+        return fill(bishops, empty, 9, ~FILE_A) | fill(bishops, empty, 7, ~FILE_H)
+                | fill(bishops, empty, -7, ~FILE_A) | fill(bishops, empty, -9, ~FILE_H);
+    }
+
+    //Propaga as peças em uma direção até a primeira casa ocupada (inclusive)
+    private static long fill(long gen, long empty, int shift, long wrap) {
+        long flood = 0;
+        gen = shift(gen, shift) & wrap;
+        while (gen != 0) {
+            flood |= gen;
+            gen = shift(gen & empty, shift) & wrap;
+        }
+        return flood;
+    }
+
+    private static long shift(long b, int shift) {
+        return shift > 0 ? b << shift : b >>> -shift;
+    }
+}
@@ -0,0 +1,31 @@
+package chess;
+
+import boardgame.Board;
+import boardgame.Position;
+
+public class ChessBoard extends Board {
+    private BitBoard bitBoard = new BitBoard();
+    private Position[] positions = new Position[64];
+
+    public ChessBoard() {
+        super(8, 8);
+        for (int square = 0; square < 64; square++) {
+            positions[square] = new Position(BitBoard.row(square), BitBoard.column(square));
+        }
+    }
+
+    public BitBoard getBitBoard() {
+        return bitBoard;
+    }
+
+    //Mesma numeração do BitBoard: a1 = 0, h8 = 63
+    @Override
+    public int index(int row, int column) {
+        return BitBoard.square(row, column);
+    }
+
+    //Posições compartilhadas por casa, para mover peças sem alocar
+    public Position position(int square) {
+        return positions[square];
+    }
+}
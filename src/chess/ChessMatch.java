@@ -1,41 +1,161 @@
 package chess;
 
-import boardgame.Board;
 import boardgame.Piece;
 import boardgame.Position;
+import chess.engine.TranspositionTable;
+import chess.event.EventDispatcher;
+import chess.event.GameEvent;
 import chess.pieces.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class ChessMatch {
-    private Board board;
+    private ChessBoard board;
+    private BitBoard bitBoard;
     private int turn;
     private Color currantPlayer;
     private boolean check;
     private boolean checkMate;
+    private boolean stalemate;
+    private GameResult result = GameResult.IN_PROGRESS;
 
     private ChessPiece enPassantVulnerable;
 
-    private List<Piece> piecesOnTheBoard= new ArrayList<>();
     private List<Piece> capturedPieces= new ArrayList<>();
 
+    //Pilha de desfazer: o BitBoard guarda o próprio estado, aqui ficam só os objetos de cada lance
+    private int[] moveStack = new int[256];
+    private ChessPiece[] capturedStack = new ChessPiece[256];
+    private ChessPiece[] pawnStack = new ChessPiece[256];
+    private ChessPiece[] enPassantStack = new ChessPiece[256];
+    private int moves;
+
+    private MoveList legalMoves = new MoveList();
+    //Destinos legais por casa de origem, montados junto com legalMoves
+    private long[] legalTargets = new long[64];
+    private boolean legalMovesReady;
+
+    private TranspositionTable table;
+    //FEN de onde a partida começou; null na posição inicial
+    private String startFen;
+
     private ChessPiece promoted;
 
+    //Última foto publicada; volatile para quem lê de outra thread ver a foto inteira
+    private volatile PositionSnapshot snapshot;
+
+    private EventDispatcher events;
+    private int gameId;
+
     public ChessMatch() {
-        board = new Board(8,8);
+        board = new ChessBoard();
+        bitBoard = board.getBitBoard();
         turn =1;
         currantPlayer = Color.WHITE;
         initialSetup();
+        bitBoard.setCastlingRights(BitBoard.ALL_CASTLING);
+        updateResult();
+        publishSnapshot();
+    }
+
+    //Partidas que compartilham a tabela reaproveitam o resumo de posições já vistas
+    public ChessMatch(TranspositionTable table) {
+        this();
+        this.table = table;
+    }
+
+    //O BitBoard é montado pela FEN; as peças do tabuleiro são criadas a partir dele
+    private ChessMatch(CharSequence fen, TranspositionTable table) {
+        board = new ChessBoard();
+        bitBoard = board.getBitBoard();
+        this.table = table;
+        startFen = fen.toString();
+        int fullMove = Fen.load(bitBoard, fen);
+        boolean whiteToMove = bitBoard.getSideToMove() == BitBoard.WHITE;
+        currantPlayer = whiteToMove ? Color.WHITE : Color.BLACK;
+        turn = 2 * (fullMove - 1) + (whiteToMove ? 1 : 2);
+
+        long occupied = bitBoard.occupied();
+        while(occupied != 0){
+            int square = Long.numberOfTrailingZeros(occupied);
+            occupied &= occupied - 1;
+            int piece = bitBoard.pieceAt(square);
+            ChessPiece p = newPiece(BitBoard.typeOf(piece), Color.values()[BitBoard.colorOf(piece)]);
+            board.placePiece(p, board.position(square));
+        }
+        //Rei e Torres sem direito de roque contam como já movidos
+        int rights = bitBoard.getCastlingRights();
+        markMoved(4, (rights & (BitBoard.WHITE_KINGSIDE | BitBoard.WHITE_QUEENSIDE)) == 0);
+        markMoved(7, (rights & BitBoard.WHITE_KINGSIDE) == 0);
+        markMoved(0, (rights & BitBoard.WHITE_QUEENSIDE) == 0);
+        markMoved(60, (rights & (BitBoard.BLACK_KINGSIDE | BitBoard.BLACK_QUEENSIDE)) == 0);
+        markMoved(63, (rights & BitBoard.BLACK_KINGSIDE) == 0);
+        markMoved(56, (rights & BitBoard.BLACK_QUEENSIDE) == 0);
+        for (long kings = bitBoard.pieces(BitBoard.WHITE, BitBoard.KING) | bitBoard.pieces(BitBoard.BLACK, BitBoard.KING); kings != 0; kings &= kings - 1) {
+            int square = Long.numberOfTrailingZeros(kings);
+            markMoved(square, square != 4 && square != 60);
+        }
+
+        int ep = bitBoard.getEnPassantSquare();
+        if (ep != BitBoard.EMPTY) {
+            enPassantVulnerable = (ChessPiece) board.piece(BitBoard.row(ep ^ 8), BitBoard.column(ep ^ 8));
+        }
+
+        check = testCheck(currantPlayer);
+        boolean noMoves = legalMoves().isEmpty();
+        if (noMoves && check) {
+            //Como numa partida jogada: no mate a vez fica com o vencedor
+            checkMate = true;
+            turn--;
+            currantPlayer = oppenent(currantPlayer);
+        } else {
+            stalemate = noMoves;
+        }
+        updateResult();
+        publishSnapshot();
+    }
+
+    public static ChessMatch fromFen(CharSequence fen) {
+        return new ChessMatch(fen, null);
+    }
+
+    public static ChessMatch fromFen(CharSequence fen, TranspositionTable table) {
+        return new ChessMatch(fen, table);
+    }
+
+    public String toFen() {
+        return Fen.toFen(bitBoard, fullMoveNumber());
+    }
+
+    //Cada lance, promoção e volta vira um GameEvent com o gameId (16 bits); null desliga
+    public void setEventDispatcher(EventDispatcher events, int gameId) {
+        if (gameId < 0 || gameId > GameEvent.MAX_GAME_ID) {
+            //Um id cortado para 16 bits colidiria com outra partida nos inscritos
+            throw new IllegalArgumentException("Identificador de partida fora de 0.." + GameEvent.MAX_GAME_ID + ": " + gameId);
+        }
+        if (events != null && moves > GameEvent.MAX_PLY) {
+            throw new IllegalArgumentException("Partida com " + moves + " lances não cabe nos eventos (até " + GameEvent.MAX_PLY + ")");
+        }
+        this.events = events;
+        this.gameId = gameId;
+    }
+
+    //Pode ser lida de qualquer thread enquanto a partida segue
+    public PositionSnapshot getSnapshot() {
+        return snapshot;
     }
 
     public ChessPiece[][] getPieces(){
         ChessPiece[][] mat = new ChessPiece[board.getRows()][board.getColumns()];
-        for(int i=0;i< board.getRows();i++){
-            for(int j=0;j<board.getColumns();j++){
-                mat[i][j] = (ChessPiece) board.piece(i,j);
-            }
+        long occupied = bitBoard.occupied();
+        while(occupied != 0){
+            int square = Long.numberOfTrailingZeros(occupied);
+            occupied &= occupied - 1;
+            int row = BitBoard.row(square);
+            int column = BitBoard.column(square);
+            mat[row][column] = (ChessPiece) board.piece(row,column);
         }
         return mat;
     }
@@ -52,6 +172,50 @@ public class ChessMatch {
     public boolean getCheckMate() {
         return checkMate;
     }
+    public boolean getStalemate() {
+        return stalemate;
+    }
+
+    //Mate, afogamento e os empates por repetição tripla, 50 lances e material insuficiente
+    public GameResult getResult() {
+        return result;
+    }
+
+    public long getHash() {
+        return bitBoard.getHash();
+    }
+
+    public BitBoard copyPosition() {
+        return new BitBoard(bitBoard);
+    }
+
+    public MoveList getLegalMoves() {
+        return new MoveList(legalMoves());
+    }
+
+    public void getLegalMoves(MoveList moves) {
+        moves.copyFrom(legalMoves());
+    }
+
+    public int getHalfMoveClock() {
+        return bitBoard.getHalfMoveClock();
+    }
+
+    public String getStartFen() {
+        return startFen;
+    }
+
+    //Lances já jogados, do primeiro ao último
+    public int getMoveCount() {
+        return moves;
+    }
+
+    public int getMove(int ply) {
+        if (ply < 0 || ply >= moves) {
+            throw new ChessException("Lance inexistente: " + ply);
+        }
+        return moveStack[ply];
+    }
 
     public ChessPiece getPromoted() {
         return promoted;
@@ -62,47 +226,64 @@ public class ChessMatch {
     }
 
     public boolean [][] possibleMoves(ChessPosition sourcePosition) {
-        Position position = sourcePosition.toPosition();
-        validateSourcePosition(position);
-        return board.piece(position).possibleMoves();
+        return board.toMatrix(possibleMovesMask(sourcePosition));
+    }
+
+    //Só os destinos legais, já sem os lances que deixariam o rei em check
+    public long possibleMovesMask(ChessPosition sourcePosition) {
+        int source = sourcePosition.toSquare();
+        validateSourcePosition(source);
+        return legalTargets[source];
     }
 
     public ChessPiece performChessMove(ChessPosition sourcePosition,ChessPosition targetPosition) {
-        Position source = sourcePosition.toPosition();
-        Position target = targetPosition.toPosition();
+        int source = sourcePosition.toSquare();
+        int target = targetPosition.toSquare();
         validateSourcePosition(source);
         validateTargetPosition(source, target);
-        Piece capturedPiece = makeMove(source, target);
+        return performChessMove(legalMoves().find(source, target));
+    }
 
-        if (testCheck(currantPlayer)) {
-            undoMove(source, target, capturedPiece);
-            throw new ChessException("Você não pode se colocar em check");
-        }
+    //Lance em SAN (e4, Nbd7, exd8=Q, O-O) convertido para o formato de Move
+    public int parseSan(CharSequence san) {
+        return San.parse(bitBoard, legalMoves(), san);
+    }
 
-        ChessPiece movedPiece = (ChessPiece) board.piece(target);
+    public String toSan(int move) {
+        return San.toString(bitBoard, legalMoves(), move);
+    }
 
-        //Promotion
-        promoted = null;
-        if(movedPiece instanceof Pawn){
-            if(movedPiece.getColor()==Color.WHITE && target.getRows()==0 ||movedPiece.getColor()==Color.BLACK && target.getRows()==7){
-                promoted = (ChessPiece) board.piece(target);
-                promoted = replacePromotedPiece("Q");
-            }
+    public ChessPiece performChessMove(int move) {
+        if(!legalMoves().contains(move)){
+            throw new ChessException("A peça escolhida não pode ir para a posição de destino");
+        }
+        //Recusa antes de mexer no tabuleiro, para o evento nunca sair com o número de lances cortado
+        if (events != null && moves == GameEvent.MAX_PLY) {
+            throw new ChessException("A partida chegou a " + GameEvent.MAX_PLY + " lances, o limite dos eventos");
         }
+        int piece = bitBoard.pieceAt(Move.from(move));
+        Piece capturedPiece = makeMove(move);
+        int target = Move.to(move);
+        ChessPiece movedPiece = (ChessPiece) board.piece(BitBoard.row(target), BitBoard.column(target));
+
+        //Promotion
+        promoted = Move.promotion(move) != 0 ? movedPiece : null;
+
+        //En passant
+        enPassantVulnerable = Move.isDoublePush(move) ? movedPiece : null;
+
         check = testCheck(oppenent(currantPlayer));
+        boolean noMoves = !hasLegalMoves();
 
-        if (testCheckMate(oppenent(currantPlayer))) {
+        if (noMoves && check) {
             checkMate = true;
         } else {
+            stalemate = noMoves;
             nextTurn();
         }
-
-        //En passant
-        if(movedPiece instanceof Pawn && (target.getRows()== source.getRows()-2 ||target.getRows()== source.getRows()+2)){
-            enPassantVulnerable = movedPiece;
-        }else {
-            enPassantVulnerable = null;
-        }
+        updateResult();
+        publishSnapshot();
+        publishEvent(GameEvent.MOVE, move, piece, (ChessPiece) capturedPiece);
 
         return (ChessPiece) capturedPiece;
     }
@@ -116,17 +297,48 @@ public class ChessMatch {
         }
 
         Position pos = promoted.getChessPosition().toPosition();
-        Piece p = board.removePiece(pos);
-        piecesOnTheBoard.remove(p);
+        removePiece(pos);
 
         ChessPiece newPiece =  newPiece(type,promoted.getColor());
-        board.placePiece(newPiece,pos);
-        piecesOnTheBoard.add(newPiece);
-
+        placePiece(newPiece,pos);
+        promoted = newPiece;
+        moveStack[moves - 1] = Move.withPromotion(moveStack[moves - 1], newPiece.getType());
+
+        //A peça nova pode mudar o xeque e o mate que a dama tinha dado
+        legalMovesReady = false;
+        Color mover = newPiece.getColor();
+        check = testCheck(oppenent(mover));
+        boolean noMoves = legalMoves().isEmpty();
+        boolean mate = noMoves && check;
+        if (mate && !checkMate) {
+            turn--;
+            currantPlayer = mover;
+        } else if (!mate && checkMate) {
+            nextTurn();
+        }
+        checkMate = mate;
+        stalemate = noMoves && !check;
+        updateResult();
+        publishSnapshot();
+        publishEvent(GameEvent.PROMOTION, moveStack[moves - 1], BitBoard.piece(mover, newPiece.getType()), capturedStack[moves - 1]);
 
         return newPiece;
     }
 
+    private Piece removePiece(Position position){
+        Piece p = board.removePiece(position);
+        if(p != null){
+            bitBoard.remove(BitBoard.square(position));
+        }
+        return p;
+    }
+
+    private void placePiece(Piece piece, Position position){
+        board.placePiece(piece,position);
+        ChessPiece p = (ChessPiece) piece;
+        bitBoard.put(BitBoard.square(position), BitBoard.piece(p.getColor(), p.getType()));
+    }
+
     private ChessPiece newPiece(String type,Color color){
         if(type.equals("B")) return new Bishop(board,color);
         if(type.equals("N")) return new Knight(board,color);
@@ -134,168 +346,217 @@ public class ChessMatch {
         return new Rook(board,color);
     }
 
+    private void markMoved(int square, boolean moved){
+        int piece = bitBoard.pieceAt(square);
+        if(moved && piece != BitBoard.EMPTY && (BitBoard.typeOf(piece) == BitBoard.KING || BitBoard.typeOf(piece) == BitBoard.ROOK)){
+            ChessPiece p = (ChessPiece) board.piece(BitBoard.row(square), BitBoard.column(square));
+            if(p.getMoveCount() == 0){
+                p.increaseMoveCount();
+            }
+        }
+    }
+
+    private ChessPiece newPiece(int type,Color color){
+        if(type == BitBoard.PAWN) return new Pawn(board,color,this);
+        if(type == BitBoard.KING) return new King(board,color,this);
+        if(type == BitBoard.BISHOP) return new Bishop(board,color);
+        if(type == BitBoard.KNIGHT) return new Knight(board,color);
+        if(type == BitBoard.QUEEN) return new Queen(board,color);
+        return new Rook(board,color);
+    }
+
+    //O BitBoard executa o lance; as peças do tabuleiro só acompanham
+    private Piece makeMove(int move){
+        int source = Move.from(move);
+        int target = Move.to(move);
+        bitBoard.makeMove(move);
+        legalMovesReady = false;
 
-    private Piece makeMove(Position source, Position target){
-        ChessPiece p = (ChessPiece) board.removePiece(source);
+        ChessPiece p = (ChessPiece) board.removePiece(board.position(source));
         p.increaseMoveCount();
-        Piece capturedPiece = board.removePiece(target);
-        board.placePiece(p,target);
+        ChessPiece capturedPiece = (ChessPiece) board.removePiece(board.position(Move.isEnPassant(move) ? target ^ 8 : target));
+
+        if (moves == moveStack.length) {
+            growStack();
+        }
+        moveStack[moves] = move;
+        capturedStack[moves] = capturedPiece;
+        pawnStack[moves] = Move.promotion(move) != 0 ? p : null;
+        enPassantStack[moves] = enPassantVulnerable;
+        moves++;
+
+        if(Move.promotion(move) != 0){
+            p = newPiece(Move.promotion(move), p.getColor());
+        }
+        board.placePiece(p, board.position(target));
 
         if(capturedPiece != null){
-            piecesOnTheBoard.remove(capturedPiece);
             capturedPieces.add(capturedPiece);
         }
-        //Castling Kingside Rook
-        if(p instanceof King && target.getColumns()==source.getColumns()+2){
-            Position sourceT = new Position(source.getRows(), source.getColumns()+3);
-            Position targetT = new Position(source.getRows(), source.getColumns()+1);
-            ChessPiece rook = (ChessPiece) board.removePiece(sourceT);
-            board.placePiece(rook,targetT);
+        //Castling Rook
+        if(Move.isCastling(move)){
+            boolean kingside = target > source;
+            ChessPiece rook = (ChessPiece) board.removePiece(board.position(kingside ? source + 3 : source - 4));
+            board.placePiece(rook, board.position(kingside ? source + 1 : source - 1));
             rook.increaseMoveCount();
         }
-        //Castling Queenside Rook
-        if(p instanceof King && target.getColumns()==source.getColumns()-2){
-            Position sourceT = new Position(source.getRows(), source.getColumns()-4);
-            Position targetT = new Position(source.getRows(), source.getColumns()-1);
-            ChessPiece rook = (ChessPiece) board.removePiece(sourceT);
-            board.placePiece(rook,targetT);
-            rook.increaseMoveCount();
-        }
-
-        //En passant
-        if(p instanceof Pawn){
-            if(source.getColumns()!=target.getColumns() && capturedPiece == null){
-                Position pawnPosition;
-                if(p.getColor()==Color.WHITE){
-                    pawnPosition = new Position(target.getRows()+1, target.getColumns());
-                }else{
-                    pawnPosition = new Position(target.getRows()-1, target.getColumns());
-                }
-                capturedPiece = board.removePiece(pawnPosition);
-                capturedPieces.add(capturedPiece);
-                piecesOnTheBoard.remove(capturedPiece);
-            }
-        }
         return capturedPiece;
     }
 
-    private void undoMove(Position source,Position target,Piece capturedPiece){
-        ChessPiece p = (ChessPiece)board.removePiece(target);
+    //Volta o último lance; devolve a peça que estava capturada, ou null
+    public ChessPiece undoMove() {
+        if (moves == 0) {
+            throw new ChessException("Não há lance para desfazer");
+        }
+        int move = moveStack[--moves];
+        int source = Move.from(move);
+        int target = Move.to(move);
+        bitBoard.unmakeMove(move);
+        legalMovesReady = false;
+
+        ChessPiece p = (ChessPiece) board.removePiece(board.position(target));
+        if (pawnStack[moves] != null) {
+            p = pawnStack[moves];
+            pawnStack[moves] = null;
+        }
         p.decreaseMoveCount();
-        board.placePiece(p,source);
+        board.placePiece(p, board.position(source));
 
-        if(capturedPiece!=null){
-            board.placePiece(capturedPiece,target);
-            capturedPieces.remove(capturedPiece);
-            piecesOnTheBoard.add(capturedPiece);
+        ChessPiece capturedPiece = capturedStack[moves];
+        if (capturedPiece != null) {
+            board.placePiece(capturedPiece, board.position(Move.isEnPassant(move) ? target ^ 8 : target));
+            capturedPieces.remove(capturedPieces.size() - 1);
+            capturedStack[moves] = null;
         }
-
-        //Castling Kingside Rook
-        if(p instanceof King && target.getColumns()==source.getColumns()+2){
-            Position sourceT = new Position(source.getRows(), source.getColumns()+ 3);
-            Position targetT = new Position(source.getRows(), source.getColumns()+ 1);
-            ChessPiece rook = (ChessPiece) board.removePiece(targetT);
-            board.placePiece(rook,sourceT);
+        if (Move.isCastling(move)) {
+            boolean kingside = target > source;
+            ChessPiece rook = (ChessPiece) board.removePiece(board.position(kingside ? source + 1 : source - 1));
+            board.placePiece(rook, board.position(kingside ? source + 3 : source - 4));
             rook.decreaseMoveCount();
         }
-        //Castling Queenside Rook
-        if(p instanceof King && target.getColumns()==source.getColumns()-2){
-            Position sourceT = new Position(source.getRows(), source.getColumns()-4);
-            Position targetT = new Position(source.getRows(), source.getColumns()-1);
-            ChessPiece rook = (ChessPiece) board.removePiece(targetT);
-            board.placePiece(rook,sourceT);
-            rook.increaseMoveCount();
+
+        enPassantVulnerable = enPassantStack[moves];
+        enPassantStack[moves] = null;
+        promoted = null;
+        //O xeque-mate não passa a vez, então não há turno para voltar
+        if (!checkMate) {
+            turn--;
+            currantPlayer = oppenent(currantPlayer);
         }
+        checkMate = false;
+        stalemate = false;
+        check = testCheck(currantPlayer);
+        updateResult();
+        publishSnapshot();
+        publishEvent(GameEvent.UNDO, move, bitBoard.pieceAt(source), capturedPiece);
+        return capturedPiece;
+    }
 
-        //En passant
-        if(p instanceof Pawn){
-            if(source.getColumns()!=target.getColumns() && capturedPiece == enPassantVulnerable){
-                ChessPiece pawn = (ChessPiece)board.removePiece(target);
-                Position pawnPosition;
-                if(p.getColor()==Color.WHITE){
-                    pawnPosition = new Position(3, target.getColumns());
-                }else{
-                    pawnPosition = new Position(4, target.getColumns());
-                }
-                board.placePiece(pawn,pawnPosition);
-            }
+    //Repetição olha só até o último lance irreversível e material são bitboards: nada de varrer o tabuleiro
+    private void updateResult() {
+        if (checkMate) {
+            result = currantPlayer == Color.WHITE ? GameResult.WHITE_WINS : GameResult.BLACK_WINS;
+        } else if (stalemate) {
+            result = GameResult.STALEMATE;
+        } else if (bitBoard.isInsufficientMaterial()) {
+            result = GameResult.INSUFFICIENT_MATERIAL;
+        } else if (bitBoard.getHalfMoveClock() >= 100) {
+            result = GameResult.FIFTY_MOVES;
+        } else if (bitBoard.repetitions() >= 2) {
+            result = GameResult.THREEFOLD_REPETITION;
+        } else {
+            result = GameResult.IN_PROGRESS;
+        }
+    }
+
+    private void publishSnapshot() {
+        snapshot = new PositionSnapshot(bitBoard, fullMoveNumber(), moves, moves == 0 ? Move.NONE : moveStack[moves - 1],
+                check, checkMate, stalemate, result);
+    }
+
+    private void publishEvent(int kind, int move, int piece, ChessPiece captured) {
+        if (events != null) {
+            int capturedCode = captured == null ? BitBoard.EMPTY : BitBoard.piece(captured.getColor(), captured.getType());
+            events.publish(GameEvent.of(kind, gameId, move, piece, capturedCode, check, checkMate, result.isDraw(), moves));
         }
     }
 
-    private void validateSourcePosition(Position position){
-        if(!board.thereIsAPiece(position)){
+    private int fullMoveNumber() {
+        //Depois do mate o turno não avança, mas a FEN já é do lado que levou o mate
+        int nextTurn = checkMate ? turn + 1 : turn;
+        return (nextTurn + 1) / 2;
+    }
+
+    private void growStack() {
+        int size = moveStack.length * 2;
+        moveStack = Arrays.copyOf(moveStack, size);
+        capturedStack = Arrays.copyOf(capturedStack, size);
+        pawnStack = Arrays.copyOf(pawnStack, size);
+        enPassantStack = Arrays.copyOf(enPassantStack, size);
+    }
+
+    private void validateSourcePosition(int square){
+        int piece = bitBoard.pieceAt(square);
+        if(piece == BitBoard.EMPTY){
             throw new ChessException("Não existe peça na posição de origem");
         }
-        if(currantPlayer!= ((ChessPiece)board.piece(position)).getColor()){
+        if(currantPlayer.ordinal() != BitBoard.colorOf(piece)){
             throw new ChessException("A peça escolhida não é sua");
         }
-        if(!board.piece(position).isThereAnyPossibleMove()){
+        legalMoves();
+        if(legalTargets[square] == 0){
             throw new ChessException("Não possuem movimentos possíveis para esta peça");
         }
     }
 
-    private void validateTargetPosition(Position source, Position target){
-        if(!board.piece(source).possibleMove(target)){
+    private void validateTargetPosition(int source, int target){
+        legalMoves();
+        if((legalTargets[source] & (1L << target)) == 0){
+            Piece p = board.piece(BitBoard.row(source), BitBoard.column(source));
+            if(p.possibleMove(board.position(target))){
+                throw new ChessException("Você não pode se colocar em check");
+            }
             throw new ChessException("A peça escolhida não pode ir para a posição de destino");
         }
     }
 
-    private Color oppenent(Color color){
-        return (color == Color.WHITE) ? Color.BLACK: Color.WHITE;
-    }
-
-    private ChessPiece king(Color color) {
-        List<Piece> list = piecesOnTheBoard.stream().filter(x -> ((ChessPiece) x).getColor() == color).collect(Collectors.toList());
-        for (Piece p : list) {
-            if (p instanceof King) {
-                return (ChessPiece) p;
+    private MoveList legalMoves(){
+        if(!legalMovesReady){
+            MoveGenerator.generate(bitBoard, legalMoves);
+            Arrays.fill(legalTargets, 0);
+            for(int i=0;i<legalMoves.size();i++){
+                int move = legalMoves.get(i);
+                legalTargets[Move.from(move)] |= 1L << Move.to(move);
             }
+            legalMovesReady = true;
         }
-        throw new IllegalStateException("Não existe o Rei "+color+" no tabuleiro");
+        return legalMoves;
     }
 
-    private boolean testCheck(Color color){
-        Position kingPositon = king(color).getChessPosition().toPosition();
-        List<Piece> opponentPieces = piecesOnTheBoard.stream().filter(x->((ChessPiece)x).getColor()== oppenent(color) ).collect(Collectors.toList());
-        for (Piece p:opponentPieces){
-            boolean [][] mat = p.possibleMoves();
-            if(mat[kingPositon.getRows()][kingPositon.getColumns()]){
-                return true;
-            }
+    private boolean hasLegalMoves(){
+        if(table == null){
+            return !legalMoves().isEmpty();
         }
-        return false;
-    }
-
-    private boolean testCheckMate(Color color){
-        if(!testCheck(color)){
-            return false;
-        }
-        List<Piece> list = piecesOnTheBoard.stream().filter(x->((ChessPiece)x).getColor()== color ).collect(Collectors.toList());
-
-        for(Piece p :list){
-            boolean [][] mat = p.possibleMoves();
-            for(int i=0; i <board.getRows();i++){
-                for(int j=0;j<board.getColumns();j++){
-                    if(mat[i][j]){
-                        Position source = ((ChessPiece)p).getChessPosition().toPosition();
-                        Position target = new Position(i,j);
-                        Piece capturePiece = makeMove(source,target);
-                        boolean testCheck= testCheck(color);
-                        undoMove(source,target,capturePiece);
-                        if(!testCheck){
-                            return false;
-                        }
-                    }
-                }
-            }
+        long entry = table.probe(bitBoard.getHash());
+        if(TranspositionTable.hasSummary(entry)){
+            return TranspositionTable.legalMoves(entry) > 0;
         }
-        return true;
+        MoveList moves = legalMoves();
+        table.storeSummary(bitBoard.getHash(), moves.size(), check);
+        return !moves.isEmpty();
+    }
+
+    private Color oppenent(Color color){
+        return (color == Color.WHITE) ? Color.BLACK: Color.WHITE;
     }
 
+    private boolean testCheck(Color color){
+        int kingSquare = bitBoard.kingSquare(color.ordinal());
+        return bitBoard.isAttacked(kingSquare, oppenent(color).ordinal());
+    }
 
     private void placeNewPiece(char column,int row,ChessPiece piece){
-        board.placePiece(piece,new ChessPosition(column,row).toPosition());
-        piecesOnTheBoard.add(piece);
+        placePiece(piece,new ChessPosition(column,row).toPosition());
     }
 
     private void nextTurn(){
@@ -17,6 +17,8 @@ public abstract class ChessPiece extends Piece{
         return color;
     }
 
+    public abstract int getType();
+
     public int getMoveCount() {
         return moveCount;
     }
@@ -33,6 +35,23 @@ public abstract class ChessPiece extends Piece{
         return p !=null && p.getColor()!=color;
     }
 
+    protected BitBoard getBitBoard(){
+        return ((ChessBoard) getBoard()).getBitBoard();
+    }
+
+    protected int square(){
+        return BitBoard.square(position);
+    }
+
+    protected static int squareOf(ChessPiece piece){
+        return BitBoard.square(piece.position);
+    }
+
+    //Remove dos ataques as casas ocupadas por peças da mesma cor
+    protected long targets(long attacks){
+        return attacks & ~getBitBoard().colorBits(color.ordinal());
+    }
+
     public ChessPosition getChessPosition(){
         return ChessPosition.fromPosition(position);
     }
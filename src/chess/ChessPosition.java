@@ -3,6 +3,14 @@ package chess;
 import boardgame.Position;
 
 public class ChessPosition {
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition((char) ('a' + BitBoard.column(square)), 8 - BitBoard.row(square));
+        }
+    }
+
     private char column;
     private int row;
 
@@ -25,8 +33,14 @@ public class ChessPosition {
     protected Position toPosition(){
         return new Position(8-row,column - 'a');
     }
+    protected int toSquare(){
+        return ((row - 1) << 3) | (column - 'a');
+    }
     protected static ChessPosition fromPosition(Position position){
-        return new ChessPosition((char)('a'+ position.getColumns()),8-position.getRows());
+        return SQUARES[BitBoard.square(position)];
+    }
+    protected static ChessPosition fromSquare(int square){
+        return SQUARES[square];
     }
 
     @Override
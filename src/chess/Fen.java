@@ -0,0 +1,222 @@
+package chess;
+
+public final class Fen {
+    public static final String INITIAL = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECES = "pnbrqkPNBRQK";
+    //O histórico do BitBoard guarda o relógio em 17 bits
+    private static final int MAX_HALF_MOVES = (1 << 17) - 1;
+
+    private Fen() {
+    }
+
+    public static int load(BitBoard board, byte[] bytes, int offset, int length) {
+        return load(board, new AsciiSequence(bytes, offset, length));
+    }
+
+    //Lê a FEN caractere a caractere, sem regex nem substring; devolve o número do lance
+    public static int load(BitBoard board, CharSequence fen) {
+        board.clear();
+        int length = fen.length();
+        int i = skipSpaces(fen, 0);
+
+        int rank = 7;
+        int file = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (file != 8) {
+                    throw invalid(fen);
+                }
+                rank--;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+            } else {
+                int piece = PIECES.indexOf(c);
+                if (piece < 0 || file > 7 || rank < 0) {
+                    throw invalid(fen);
+                }
+                board.put((rank << 3) | file, piece);
+                file++;
+            }
+            if (file > 8) {
+                throw invalid(fen);
+            }
+        }
+        if (rank != 0 || file != 8) {
+            throw invalid(fen);
+        }
+        if (Long.bitCount(board.pieces(BitBoard.WHITE, BitBoard.KING)) != 1
+                || Long.bitCount(board.pieces(BitBoard.BLACK, BitBoard.KING)) != 1) {
+            throw new ChessException("FEN inválida: cada lado precisa de exatamente um Rei");
+        }
+        if (((board.pieces(BitBoard.WHITE, BitBoard.PAWN) | board.pieces(BitBoard.BLACK, BitBoard.PAWN))
+                & (BitBoard.RANK_1 | BitBoard.RANK_8)) != 0) {
+            throw new ChessException("FEN inválida: peão na primeira ou na última fileira");
+        }
+
+        i = skipSpaces(fen, i);
+        if (i >= length) {
+            throw invalid(fen);
+        }
+        char side = fen.charAt(i++);
+        if (side != 'w' && side != 'b') {
+            throw invalid(fen);
+        }
+        board.setSideToMove(side == 'w' ? BitBoard.WHITE : BitBoard.BLACK);
+        int us = board.getSideToMove();
+        if (board.isAttacked(board.kingSquare(us ^ 1), us)) {
+            throw new ChessException("FEN inválida: o lado que não joga está em xeque");
+        }
+
+        i = skipSpaces(fen, i);
+        int rights = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            switch (fen.charAt(i)) {
+                case 'K': rights |= BitBoard.WHITE_KINGSIDE; break;
+                case 'Q': rights |= BitBoard.WHITE_QUEENSIDE; break;
+                case 'k': rights |= BitBoard.BLACK_KINGSIDE; break;
+                case 'q': rights |= BitBoard.BLACK_QUEENSIDE; break;
+                case '-': break;
+                default: throw invalid(fen);
+            }
+        }
+        board.setCastlingRights(rights & possibleCastling(board));
+
+        i = skipSpaces(fen, i);
+        if (i < length && fen.charAt(i) != '-') {
+            if (i + 1 >= length) {
+                throw invalid(fen);
+            }
+            int epFile = fen.charAt(i) - 'a';
+            int epRank = fen.charAt(i + 1) - '1';
+            if (epFile < 0 || epFile > 7) {
+                throw invalid(fen);
+            }
+            //Casa de en passant fica atrás do peão que acabou de avançar duas casas
+            if (epRank != (us == BitBoard.WHITE ? 5 : 2)) {
+                throw new ChessException("FEN inválida: casa de en passant fora da fileira do lado que joga");
+            }
+            int square = (epRank << 3) | epFile;
+            //A casa e a de onde o peão saiu ficam vazias, e o peão inimigo está logo à frente
+            int from = square + (us == BitBoard.WHITE ? 8 : -8);
+            if (board.pieceAt(square) != BitBoard.EMPTY || board.pieceAt(from) != BitBoard.EMPTY
+                    || board.pieceAt(square ^ 8) != BitBoard.piece(us ^ 1, BitBoard.PAWN)) {
+                throw new ChessException("FEN inválida: en passant sem o peão que acabou de avançar duas casas");
+            }
+            if ((Attacks.pawn(us ^ 1, square) & board.pieces(us, BitBoard.PAWN)) != 0) {
+                board.setEnPassantSquare(square);
+            }
+        }
+        while (i < length && fen.charAt(i) != ' ') {
+            i++;
+        }
+
+        //Os dois contadores são opcionais
+        i = skipSpaces(fen, i);
+        if (i >= length) {
+            return 1;
+        }
+        int halfMoves = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            halfMoves = digit(fen, i, halfMoves);
+        }
+        if (halfMoves > MAX_HALF_MOVES) {
+            throw new ChessException("FEN inválida: relógio de meio-lances acima de " + MAX_HALF_MOVES);
+        }
+        board.setHalfMoveClock(halfMoves);
+
+        i = skipSpaces(fen, i);
+        if (i >= length) {
+            return 1;
+        }
+        int fullMoves = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            fullMoves = digit(fen, i, fullMoves);
+        }
+        if (skipSpaces(fen, i) != length) {
+            throw invalid(fen);
+        }
+        return Math.max(fullMoves, 1);
+    }
+
+    public static String toFen(BitBoard board, int fullMoveNumber) {
+        StringBuilder sb = new StringBuilder(90);
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                int piece = board.pieceAt((rank << 3) | file);
+                if (piece == BitBoard.EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append(empty);
+                    empty = 0;
+                }
+                sb.append(PIECES.charAt(piece));
+            }
+            if (empty > 0) {
+                sb.append(empty);
+            }
+            if (rank > 0) {
+                sb.append('/');
+            }
+        }
+        sb.append(board.getSideToMove() == BitBoard.WHITE ? " w " : " b ");
+
+        int rights = board.getCastlingRights();
+        if (rights == 0) {
+            sb.append('-');
+        }
+        if ((rights & BitBoard.WHITE_KINGSIDE) != 0) sb.append('K');
+        if ((rights & BitBoard.WHITE_QUEENSIDE) != 0) sb.append('Q');
+        if ((rights & BitBoard.BLACK_KINGSIDE) != 0) sb.append('k');
+        if ((rights & BitBoard.BLACK_QUEENSIDE) != 0) sb.append('q');
+
+        int ep = board.getEnPassantSquare();
+        if (ep == BitBoard.EMPTY) {
+            sb.append(" -");
+        } else {
+            sb.append(' ').append((char) ('a' + (ep & 7))).append((char) ('1' + (ep >>> 3)));
+        }
+        sb.append(' ').append(board.getHalfMoveClock()).append(' ').append(fullMoveNumber);
+        return sb.toString();
+    }
+
+    private static int digit(CharSequence fen, int i, int value) {
+        char c = fen.charAt(i);
+        if (c < '0' || c > '9' || value > 100_000) {
+            throw invalid(fen);
+        }
+        return value * 10 + (c - '0');
+    }
+
+    //Descarta direitos de roque sem o Rei e a Torre nas casas iniciais
+    private static int possibleCastling(BitBoard board) {
+        int rights = 0;
+        int whiteRook = BitBoard.piece(BitBoard.WHITE, BitBoard.ROOK);
+        int blackRook = BitBoard.piece(BitBoard.BLACK, BitBoard.ROOK);
+        if (board.pieceAt(4) == BitBoard.piece(BitBoard.WHITE, BitBoard.KING)) {
+            if (board.pieceAt(7) == whiteRook) rights |= BitBoard.WHITE_KINGSIDE;
+            if (board.pieceAt(0) == whiteRook) rights |= BitBoard.WHITE_QUEENSIDE;
+        }
+        if (board.pieceAt(60) == BitBoard.piece(BitBoard.BLACK, BitBoard.KING)) {
+            if (board.pieceAt(63) == blackRook) rights |= BitBoard.BLACK_KINGSIDE;
+            if (board.pieceAt(56) == blackRook) rights |= BitBoard.BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
+    private static int skipSpaces(CharSequence fen, int i) {
+        while (i < fen.length() && fen.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static ChessException invalid(CharSequence fen) {
+        return new ChessException("FEN inválida: " + fen);
+    }
+}
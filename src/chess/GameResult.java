@@ -0,0 +1,36 @@
+package chess;
+
+public enum GameResult {
+    IN_PROGRESS("*", "Em andamento"),
+    WHITE_WINS("1-0", "Vitória das brancas"),
+    BLACK_WINS("0-1", "Vitória das pretas"),
+    STALEMATE("1/2-1/2", "Afogamento"),
+    THREEFOLD_REPETITION("1/2-1/2", "Repetição tripla"),
+    FIFTY_MOVES("1/2-1/2", "Regra dos 50 lances"),
+    INSUFFICIENT_MATERIAL("1/2-1/2", "Material insuficiente");
+
+    private final String pgn;
+    private final String description;
+
+    GameResult(String pgn, String description) {
+        this.pgn = pgn;
+        this.description = description;
+    }
+
+    public boolean isOver() {
+        return this != IN_PROGRESS;
+    }
+
+    public boolean isDraw() {
+        return pgn.equals("1/2-1/2");
+    }
+
+    //Resultado como na tag Result do PGN
+    public String toPgn() {
+        return pgn;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
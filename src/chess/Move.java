@@ -0,0 +1,102 @@
+package chess;
+
+public final class Move {
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int EN_PASSANT = 1 << 16;
+    public static final int CASTLING = 1 << 17;
+    public static final int DOUBLE_PUSH = 1 << 18;
+
+    //Origem, destino e promoção cabem em 16 bits; as flags saem da posição
+    public static final int PACKED_MASK = 0x7FFF;
+
+    private Move() {
+    }
+
+    //bits 0-5 origem, 6-11 destino, 12-14 peça da promoção, 15+ flags
+    public static int of(int from, int to, int flags) {
+        return from | (to << 6) | flags;
+    }
+
+    public static int of(int from, int to, int promotion, int flags) {
+        return from | (to << 6) | (promotion << 12) | flags;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static int promotion(int move) {
+        return (move >>> 12) & 7;
+    }
+
+    public static int withPromotion(int move, int promotion) {
+        return (move & ~(7 << 12)) | (promotion << 12);
+    }
+
+    public static short pack(int move) {
+        return (short) (move & PACKED_MASK);
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        return (move & CASTLING) != 0;
+    }
+
+    public static boolean isDoublePush(int move) {
+        return (move & DOUBLE_PUSH) != 0;
+    }
+
+    //Notação de coordenadas: e2e4, e7e8q
+    public static String toString(int move) {
+        int from = from(move);
+        int to = to(move);
+        StringBuilder sb = new StringBuilder(5);
+        sb.append((char) ('a' + (from & 7))).append((char) ('1' + (from >>> 3)));
+        sb.append((char) ('a' + (to & 7))).append((char) ('1' + (to >>> 3)));
+        if (promotion(move) != 0) {
+            sb.append("pnbrqk".charAt(promotion(move)));
+        }
+        return sb.toString();
+    }
+
+    //Acha na lista o lance em coordenadas (e2e4, e7e8q); Move.NONE se o texto não é um lance da lista
+    public static int parse(MoveList legal, CharSequence text) {
+        int length = text.length();
+        if (length != 4 && length != 5) {
+            return NONE;
+        }
+        int from = square(text.charAt(0), text.charAt(1));
+        int to = square(text.charAt(2), text.charAt(3));
+        int promotion = length == 5 ? "pnbrqk".indexOf(Character.toLowerCase(text.charAt(4))) : 0;
+        if (from < 0 || to < 0 || promotion < 0) {
+            return NONE;
+        }
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            if (from(move) == from && to(move) == to && promotion(move) == promotion) {
+                return move;
+            }
+        }
+        return NONE;
+    }
+
+    private static int square(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return -1;
+        }
+        return ((rank - '1') << 3) | (file - 'a');
+    }
+}
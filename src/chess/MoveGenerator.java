@@ -0,0 +1,185 @@
+package chess;
+
+public final class MoveGenerator {
+    private static final int[] PROMOTIONS = {BitBoard.QUEEN, BitBoard.ROOK, BitBoard.BISHOP, BitBoard.KNIGHT};
+
+    private MoveGenerator() {
+    }
+
+    //Gera apenas lances legais: cravadas e xeques são resolvidos antes de gerar
+    public static void generate(BitBoard board, MoveList moves) {
+        moves.clear();
+        int us = board.getSideToMove();
+        int them = us ^ 1;
+        long occupied = board.occupied();
+        long own = board.colorBits(us);
+        long enemy = board.colorBits(them);
+        int kingSquare = board.kingSquare(us);
+        long checkers = board.attackersTo(kingSquare, them, occupied);
+
+        //Rei: a casa de destino não pode ser atacada nem com o rei fora do caminho
+        long withoutKing = occupied ^ (1L << kingSquare);
+        long targets = Attacks.king(kingSquare) & ~own;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (board.attackersTo(to, them, withoutKing) == 0) {
+                moves.add(Move.of(kingSquare, to, (enemy & (1L << to)) != 0 ? Move.CAPTURE : 0));
+            }
+        }
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+
+        //Em xeque simples só vale capturar o atacante ou bloquear o raio
+        long evasion = -1L;
+        if (checkers != 0) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            evasion = checkers | Attacks.between(kingSquare, checker);
+        }
+        long pinned = pinned(board, us, kingSquare);
+
+        long knights = board.pieces(us, BitBoard.KNIGHT) & ~pinned;
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            addMoves(moves, from, Attacks.knight(from) & ~own & evasion, enemy);
+        }
+        long bishops = board.pieces(us, BitBoard.BISHOP) | board.pieces(us, BitBoard.QUEEN);
+        while (bishops != 0) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            long attacks = Attacks.bishop(from, occupied) & ~own & evasion;
+            addMoves(moves, from, pinLine(attacks, pinned, kingSquare, from), enemy);
+        }
+        long rooks = board.pieces(us, BitBoard.ROOK) | board.pieces(us, BitBoard.QUEEN);
+        while (rooks != 0) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            long attacks = Attacks.rook(from, occupied) & ~own & evasion;
+            addMoves(moves, from, pinLine(attacks, pinned, kingSquare, from), enemy);
+        }
+
+        generatePawnMoves(board, moves, us, kingSquare, evasion, pinned);
+
+        if (checkers == 0) {
+            generateCastling(board, moves, us);
+        }
+    }
+
+    //Peças da própria cor que são a única barreira entre o rei e um atacante de longo alcance
+    public static long pinned(BitBoard board, int us, int kingSquare) {
+        int them = us ^ 1;
+        long occupied = board.occupied();
+        long own = board.colorBits(us);
+        long snipers = (Attacks.rook(kingSquare, 0) & (board.pieces(them, BitBoard.ROOK) | board.pieces(them, BitBoard.QUEEN)))
+                | (Attacks.bishop(kingSquare, 0) & (board.pieces(them, BitBoard.BISHOP) | board.pieces(them, BitBoard.QUEEN)));
+        long pinned = 0;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(kingSquare, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & own;
+            }
+        }
+        return pinned;
+    }
+
+    private static long pinLine(long targets, long pinned, int kingSquare, int from) {
+        if ((pinned & (1L << from)) == 0) {
+            return targets;
+        }
+        return targets & Attacks.line(kingSquare, from);
+    }
+
+    private static void addMoves(MoveList moves, int from, long targets, long enemy) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(Move.of(from, to, (enemy & (1L << to)) != 0 ? Move.CAPTURE : 0));
+        }
+    }
+
+    private static void generatePawnMoves(BitBoard board, MoveList moves, int us, int kingSquare, long evasion, long pinned) {
+        int them = us ^ 1;
+        long occupied = board.occupied();
+        long enemy = board.colorBits(them);
+        int forward = us == BitBoard.WHITE ? 8 : -8;
+        long startRank = us == BitBoard.WHITE ? BitBoard.RANK_1 << 8 : BitBoard.RANK_1 << 48;
+        long lastRank = us == BitBoard.WHITE ? BitBoard.RANK_8 : BitBoard.RANK_1;
+
+        long pawns = board.pieces(us, BitBoard.PAWN);
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            long bit = 1L << from;
+            long targets = 0;
+
+            int single = from + forward;
+            if ((occupied & (1L << single)) == 0) {
+                targets |= 1L << single;
+                int twice = single + forward;
+                if ((bit & startRank) != 0 && (occupied & (1L << twice)) == 0) {
+                    targets |= 1L << twice;
+                }
+            }
+            targets |= Attacks.pawn(us, from) & enemy;
+            targets = pinLine(targets & evasion, pinned, kingSquare, from);
+
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                int flags = (enemy & (1L << to)) != 0 ? Move.CAPTURE : 0;
+                if (((1L << to) & lastRank) != 0) {
+                    for (int promotion : PROMOTIONS) {
+                        moves.add(Move.of(from, to, promotion, flags));
+                    }
+                } else {
+                    if (to - from == 2 * forward) {
+                        flags |= Move.DOUBLE_PUSH;
+                    }
+                    moves.add(Move.of(from, to, flags));
+                }
+            }
+        }
+
+        //En passant: testado montando a ocupação depois do lance, por causa da cravada horizontal
+        int epSquare = board.getEnPassantSquare();
+        if (epSquare == BitBoard.EMPTY) {
+            return;
+        }
+        int capturedSquare = epSquare - forward;
+        long candidates = Attacks.pawn(them, epSquare) & board.pieces(us, BitBoard.PAWN);
+        while (candidates != 0) {
+            int from = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            long after = (occupied ^ (1L << from) ^ (1L << capturedSquare)) | (1L << epSquare);
+            long attackers = board.attackersTo(kingSquare, them, after) & ~(1L << capturedSquare);
+            if (attackers == 0) {
+                moves.add(Move.of(from, epSquare, Move.CAPTURE | Move.EN_PASSANT));
+            }
+        }
+    }
+
+    private static void generateCastling(BitBoard board, MoveList moves, int us) {
+        int them = us ^ 1;
+        int rights = board.getCastlingRights();
+        int kingside = us == BitBoard.WHITE ? BitBoard.WHITE_KINGSIDE : BitBoard.BLACK_KINGSIDE;
+        int queenside = us == BitBoard.WHITE ? BitBoard.WHITE_QUEENSIDE : BitBoard.BLACK_QUEENSIDE;
+        int king = us == BitBoard.WHITE ? 4 : 60;
+        long occupied = board.occupied();
+        int rook = BitBoard.piece(us, BitBoard.ROOK);
+
+        if ((rights & kingside) != 0 && board.pieceAt(king + 3) == rook
+                && (occupied & (3L << (king + 1))) == 0
+                && !board.isAttacked(king + 1, them) && !board.isAttacked(king + 2, them)) {
+            moves.add(Move.of(king, king + 2, Move.CASTLING));
+        }
+        if ((rights & queenside) != 0 && board.pieceAt(king - 4) == rook
+                && (occupied & (7L << (king - 3))) == 0
+                && !board.isAttacked(king - 1, them) && !board.isAttacked(king - 2, them)) {
+            moves.add(Move.of(king, king - 2, Move.CASTLING));
+        }
+    }
+}
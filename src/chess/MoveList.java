@@ -0,0 +1,81 @@
+package chess;
+
+public class MoveList {
+    private final int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(256);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public MoveList(MoveList other) {
+        moves = other.moves.clone();
+        size = other.size;
+    }
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void swap(int i, int j) {
+        int move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void copyFrom(MoveList other) {
+        System.arraycopy(other.moves, 0, moves, 0, other.size);
+        size = other.size;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //Primeiro lance com a origem e o destino dados, ou Move.NONE
+    public int find(int from, int to) {
+        for (int i = 0; i < size; i++) {
+            int move = moves[i];
+            if (Move.from(move) == from && Move.to(move) == to) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    //Lance legal correspondente ao lance compactado por Move.pack, ou Move.NONE
+    public int findPacked(int packed) {
+        for (int i = 0; i < size; i++) {
+            int move = moves[i];
+            if ((move & Move.PACKED_MASK) == packed) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+}
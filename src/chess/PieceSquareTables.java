@@ -0,0 +1,127 @@
+package chess;
+
+public final class PieceSquareTables {
+    //Peão, cavalo, bispo, torre, dama, rei
+    public static final int[] MIDGAME_VALUES = {90, 320, 330, 480, 1000, 0};
+    public static final int[] ENDGAME_VALUES = {110, 290, 310, 520, 950, 0};
+
+    //Peso de cada peça na fase do jogo: 24 com todas as peças, 0 só com reis e peões
+    public static final int MAX_PHASE = 24;
+    private static final int[] PHASE = {0, 1, 1, 2, 4, 0};
+
+    //Vistas do lado das brancas, com a oitava fileira em cima
+    private static final int[] PAWN = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             10,  10,  20,  30,  30,  20,  10,  10,
+              5,   5,  10,  25,  25,  10,   5,   5,
+              0,   0,   0,  20,  20,   0,   0,   0,
+              5,  -5, -10,   0,   0, -10,  -5,   5,
+              5,  10,  10, -20, -20,  10,  10,   5,
+              0,   0,   0,   0,   0,   0,   0,   0};
+
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50};
+
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20};
+
+    private static final int[] ROOK = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+              5,  10,  10,  10,  10,  10,  10,   5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+              0,   0,   0,   5,   5,   0,   0,   0};
+
+    private static final int[] QUEEN = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20};
+
+    private static final int[] KING_MIDGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20};
+
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10,   0,   0, -10, -20, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -30,   0,   0,   0,   0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50};
+
+    //Material + tabela, já com sinal (positivo para as brancas), abertura e final num int só:
+    //(final << 16) + abertura, para put/remove fazerem uma leitura e uma soma
+    private static final int[] SCORES = new int[12 * 64];
+    private static final int[] PIECE_PHASE = new int[12];
+
+    static {
+        int[][] midgame = {PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING_MIDGAME};
+        int[][] endgame = {PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING_ENDGAME};
+        for (int type = BitBoard.PAWN; type <= BitBoard.KING; type++) {
+            for (int square = 0; square < 64; square++) {
+                int white = BitBoard.piece(BitBoard.WHITE, type);
+                int black = BitBoard.piece(BitBoard.BLACK, type);
+                SCORES[(white << 6) | square] = pack(MIDGAME_VALUES[type] + midgame[type][square ^ 56],
+                        ENDGAME_VALUES[type] + endgame[type][square ^ 56]);
+                SCORES[(black << 6) | square] = pack(-(MIDGAME_VALUES[type] + midgame[type][square]),
+                        -(ENDGAME_VALUES[type] + endgame[type][square]));
+            }
+            PIECE_PHASE[BitBoard.piece(BitBoard.WHITE, type)] = PHASE[type];
+            PIECE_PHASE[BitBoard.piece(BitBoard.BLACK, type)] = PHASE[type];
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    public static int score(int piece, int square) {
+        return SCORES[(piece << 6) | square];
+    }
+
+    public static int phase(int piece) {
+        return PIECE_PHASE[piece];
+    }
+
+    public static int pack(int midgame, int endgame) {
+        return (endgame << 16) + midgame;
+    }
+
+    public static int midgame(int score) {
+        return (short) score;
+    }
+
+    public static int endgame(int score) {
+        return (score + 0x8000) >> 16;
+    }
+}
@@ -0,0 +1,132 @@
+package chess;
+
+//Foto imutável da partida depois de um lance: só bitboards e números, nenhuma peça nem tabuleiro.
+//O ChessMatch publica uma nova a cada lance, então outras threads leem sem trava e sem ver meio lance
+public final class PositionSnapshot {
+    private final long[] pieces;
+    private final long occupied;
+    private final int sideToMove;
+    private final int castlingRights;
+    private final int enPassantSquare;
+    private final int halfMoveClock;
+    private final int fullMoveNumber;
+    private final long hash;
+    private final int moveCount;
+    private final int lastMove;
+    private final boolean check;
+    private final boolean checkMate;
+    private final boolean stalemate;
+    private final GameResult result;
+
+    PositionSnapshot(BitBoard board, int fullMoveNumber, int moveCount, int lastMove,
+                     boolean check, boolean checkMate, boolean stalemate, GameResult result) {
+        //12 longs: copiar sai mais barato que qualquer compartilhamento entre fotos
+        pieces = new long[12];
+        for (int piece = 0; piece < 12; piece++) {
+            pieces[piece] = board.pieces(BitBoard.colorOf(piece), BitBoard.typeOf(piece));
+        }
+        occupied = board.occupied();
+        sideToMove = board.getSideToMove();
+        castlingRights = board.getCastlingRights();
+        enPassantSquare = board.getEnPassantSquare();
+        halfMoveClock = board.getHalfMoveClock();
+        hash = board.getHash();
+        this.fullMoveNumber = fullMoveNumber;
+        this.moveCount = moveCount;
+        this.lastMove = lastMove;
+        this.check = check;
+        this.checkMate = checkMate;
+        this.stalemate = stalemate;
+        this.result = result;
+    }
+
+    public int pieceAt(int square) {
+        long bit = 1L << square;
+        if ((occupied & bit) == 0) {
+            return BitBoard.EMPTY;
+        }
+        for (int piece = 0; piece < 12; piece++) {
+            if ((pieces[piece] & bit) != 0) {
+                return piece;
+            }
+        }
+        return BitBoard.EMPTY;
+    }
+
+    public long pieces(int color, int type) {
+        return pieces[BitBoard.piece(color, type)];
+    }
+
+    public long occupied() {
+        return occupied;
+    }
+
+    //Lado que joga na posição; depois do mate é o lado que levou o mate
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public int getHalfMoveClock() {
+        return halfMoveClock;
+    }
+
+    public int getFullMoveNumber() {
+        return fullMoveNumber;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    //Move.NONE antes do primeiro lance
+    public int getLastMove() {
+        return lastMove;
+    }
+
+    public boolean getCheck() {
+        return check;
+    }
+
+    public boolean getCheckMate() {
+        return checkMate;
+    }
+
+    public boolean getStalemate() {
+        return stalemate;
+    }
+
+    public GameResult getResult() {
+        return result;
+    }
+
+    //Tabuleiro novo e independente, para análise ou busca em outra thread
+    public BitBoard toBitBoard() {
+        BitBoard board = new BitBoard();
+        for (int piece = 0; piece < 12; piece++) {
+            for (long bits = pieces[piece]; bits != 0; bits &= bits - 1) {
+                board.put(Long.numberOfTrailingZeros(bits), piece);
+            }
+        }
+        board.setSideToMove(sideToMove);
+        board.setCastlingRights(castlingRights);
+        board.setEnPassantSquare(enPassantSquare);
+        board.setHalfMoveClock(halfMoveClock);
+        return board;
+    }
+
+    public String toFen() {
+        return Fen.toFen(toBitBoard(), fullMoveNumber);
+    }
+}
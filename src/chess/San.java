@@ -0,0 +1,146 @@
+package chess;
+
+public final class San {
+    private static final String PIECES = "PNBRQK";
+
+    private San() {
+    }
+
+    //Acha na lista de lances legais o lance escrito em SAN (e4, Nbxd7, exd8=Q+, O-O-O)
+    public static int parse(BitBoard board, MoveList legal, CharSequence san) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end == 0) {
+            throw invalid(san);
+        }
+
+        char first = san.charAt(0);
+        if (first == 'O' || first == '0') {
+            boolean queenside = end >= 5;
+            for (int i = 0; i < legal.size(); i++) {
+                int move = legal.get(i);
+                if (Move.isCastling(move) && (Move.to(move) < Move.from(move)) == queenside) {
+                    return move;
+                }
+            }
+            throw illegal(san);
+        }
+
+        int promotion = 0;
+        if (end >= 2 && PIECES.indexOf(san.charAt(end - 1)) > 0) {
+            promotion = PIECES.indexOf(san.charAt(end - 1));
+            end -= san.charAt(end - 2) == '=' ? 2 : 1;
+        }
+        if (end < 2) {
+            throw invalid(san);
+        }
+        int toFile = san.charAt(end - 2) - 'a';
+        int toRank = san.charAt(end - 1) - '1';
+        if (toFile < 0 || toFile > 7 || toRank < 0 || toRank > 7) {
+            throw invalid(san);
+        }
+        int to = (toRank << 3) | toFile;
+
+        int type = BitBoard.PAWN;
+        int i = 0;
+        if (PIECES.indexOf(first) > 0) {
+            type = PIECES.indexOf(first);
+            i = 1;
+        }
+        //O que sobra entre a peça e o destino é desambiguação (coluna e/ou fileira) e o 'x'
+        int fromFile = -1;
+        int fromRank = -1;
+        for (; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else if (c != 'x' && c != ':' && c != '-') {
+                throw invalid(san);
+            }
+        }
+
+        int found = Move.NONE;
+        for (int j = 0; j < legal.size(); j++) {
+            int move = legal.get(j);
+            int from = Move.from(move);
+            if (Move.to(move) != to || Move.promotion(move) != promotion
+                    || BitBoard.typeOf(board.pieceAt(from)) != type
+                    || (fromFile >= 0 && (from & 7) != fromFile)
+                    || (fromRank >= 0 && (from >>> 3) != fromRank)) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                throw new ChessException("Lance SAN ambíguo: " + san);
+            }
+            found = move;
+        }
+        if (found == Move.NONE) {
+            throw illegal(san);
+        }
+        return found;
+    }
+
+    //Escreve o lance em SAN, com a desambiguação mínima e + ou # no fim
+    public static String toString(BitBoard board, MoveList legal, int move) {
+        StringBuilder sb = new StringBuilder(8);
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int type = BitBoard.typeOf(board.pieceAt(from));
+        if (Move.isCastling(move)) {
+            sb.append(to > from ? "O-O" : "O-O-O");
+        } else {
+            if (type != BitBoard.PAWN) {
+                sb.append(PIECES.charAt(type));
+                boolean sameFile = false;
+                boolean sameRank = false;
+                boolean ambiguous = false;
+                for (int i = 0; i < legal.size(); i++) {
+                    int other = legal.get(i);
+                    int otherFrom = Move.from(other);
+                    if (other != move && Move.to(other) == to && otherFrom != from && board.pieceAt(otherFrom) == board.pieceAt(from)) {
+                        ambiguous = true;
+                        sameFile |= (otherFrom & 7) == (from & 7);
+                        sameRank |= (otherFrom >>> 3) == (from >>> 3);
+                    }
+                }
+                if (ambiguous && (!sameFile || sameRank)) {
+                    sb.append((char) ('a' + (from & 7)));
+                }
+                if (ambiguous && sameFile) {
+                    sb.append((char) ('1' + (from >>> 3)));
+                }
+            } else if (Move.isCapture(move)) {
+                sb.append((char) ('a' + (from & 7)));
+            }
+            if (Move.isCapture(move)) {
+                sb.append('x');
+            }
+            sb.append((char) ('a' + (to & 7))).append((char) ('1' + (to >>> 3)));
+            if (Move.promotion(move) != 0) {
+                sb.append('=').append(PIECES.charAt(Move.promotion(move)));
+            }
+        }
+
+        board.makeMove(move);
+        int us = board.getSideToMove();
+        if (board.isAttacked(board.kingSquare(us), us ^ 1)) {
+            MoveList replies = new MoveList();
+            MoveGenerator.generate(board, replies);
+            sb.append(replies.isEmpty() ? '#' : '+');
+        }
+        board.unmakeMove(move);
+        return sb.toString();
+    }
+
+    private static ChessException invalid(CharSequence san) {
+        return new ChessException("Lance SAN inválido: " + san);
+    }
+
+    private static ChessException illegal(CharSequence san) {
+        return new ChessException("Lance SAN ilegal nesta posição: " + san);
+    }
+}
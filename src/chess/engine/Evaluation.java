@@ -0,0 +1,182 @@
+package chess.engine;
+
+import chess.Attacks;
+import chess.BitBoard;
+import chess.PieceSquareTables;
+
+//Material e tabelas de posição vêm prontos do BitBoard; aqui só entram os termos que dependem do todo
+public class Evaluation {
+    private static final int TEMPO = 10;
+
+    //Cavalo, bispo, torre, dama: valor por casa acima/abaixo da mobilidade média
+    private static final int[] MOBILITY_MIDGAME = {0, 4, 5, 2, 1, 0};
+    private static final int[] MOBILITY_ENDGAME = {0, 4, 5, 4, 2, 0};
+    private static final int[] MOBILITY_AVERAGE = {0, 4, 6, 7, 13, 0};
+
+    private static final int SHIELD_PAWN = 10;
+    private static final int[] KING_ATTACK_WEIGHT = {0, 8, 8, 12, 20, 0};
+
+    private static final int DOUBLED_MIDGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    //Por fileira relativa ao dono do peão
+    private static final int[] PASSED_MIDGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 20, 35, 60, 100, 150, 0};
+
+    private static final long[] ADJACENT_FILES = new long[8];
+    private static final long[][] PASSED_MASK = new long[2][64];
+    private static final long[][] SHIELD_MASK = new long[2][64];
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            long files = 0;
+            if (file > 0) {
+                files |= BitBoard.FILE_A << (file - 1);
+            }
+            if (file < 7) {
+                files |= BitBoard.FILE_A << (file + 1);
+            }
+            ADJACENT_FILES[file] = files;
+        }
+        for (int square = 0; square < 64; square++) {
+            int file = square & 7;
+            int rank = square >>> 3;
+            long files = ADJACENT_FILES[file] | (BitBoard.FILE_A << file);
+            long above = rank == 7 ? 0 : -1L << ((rank + 1) << 3);
+            long below = rank == 0 ? 0 : -1L >>> ((8 - rank) << 3);
+            PASSED_MASK[BitBoard.WHITE][square] = files & above;
+            PASSED_MASK[BitBoard.BLACK][square] = files & below;
+
+            long front = rank < 7 ? BitBoard.RANK_1 << ((rank + 1) << 3) : 0;
+            front |= rank < 6 ? BitBoard.RANK_1 << ((rank + 2) << 3) : 0;
+            long back = rank > 0 ? BitBoard.RANK_1 << ((rank - 1) << 3) : 0;
+            back |= rank > 1 ? BitBoard.RANK_1 << ((rank - 2) << 3) : 0;
+            SHIELD_MASK[BitBoard.WHITE][square] = files & front;
+            SHIELD_MASK[BitBoard.BLACK][square] = files & back;
+        }
+    }
+
+    private final long[] pawnKeys;
+    private final int[] pawnMidgame;
+    private final int[] pawnEndgame;
+    private final int pawnMask;
+    private long pawnHits;
+    private long pawnProbes;
+
+    //Um por thread: o cache de peões não é compartilhado
+    public Evaluation(int pawnEntries) {
+        int size = Integer.highestOneBit(Math.max(pawnEntries, 1));
+        pawnKeys = new long[size];
+        pawnMidgame = new int[size];
+        pawnEndgame = new int[size];
+        pawnMask = size - 1;
+    }
+
+    public Evaluation() {
+        this(1 << 14);
+    }
+
+    //Nota do ponto de vista de quem joga, em centipeões
+    public int evaluate(BitBoard board) {
+        int midgame = board.getMidgameScore();
+        int endgame = board.getEndgameScore();
+
+        int index = (int) board.getPawnHash() & pawnMask;
+        pawnProbes++;
+        if (pawnKeys[index] == board.getPawnHash()) {
+            pawnHits++;
+        } else {
+            pawnStructure(board, index);
+        }
+        midgame += pawnMidgame[index];
+        endgame += pawnEndgame[index];
+
+        for (int color = BitBoard.BLACK; color <= BitBoard.WHITE; color++) {
+            int sign = color == BitBoard.WHITE ? 1 : -1;
+            int them = color ^ 1;
+            long occupied = board.occupied();
+            long area = ~board.colorBits(color) & ~BitBoard.pawnAttacks(board.pieces(them, BitBoard.PAWN), them);
+            int enemyKing = board.kingSquare(them);
+            long kingZone = Attacks.king(enemyKing) | (1L << enemyKing);
+
+            int attackers = 0;
+            int attackWeight = 0;
+            for (int type = BitBoard.KNIGHT; type <= BitBoard.QUEEN; type++) {
+                for (long bits = board.pieces(color, type); bits != 0; bits &= bits - 1) {
+                    int square = Long.numberOfTrailingZeros(bits);
+                    long attacks = attacks(type, square, occupied);
+                    int mobility = Long.bitCount(attacks & area) - MOBILITY_AVERAGE[type];
+                    midgame += sign * mobility * MOBILITY_MIDGAME[type];
+                    endgame += sign * mobility * MOBILITY_ENDGAME[type];
+                    int hits = Long.bitCount(attacks & kingZone);
+                    if (hits > 0) {
+                        attackers++;
+                        attackWeight += hits * KING_ATTACK_WEIGHT[type];
+                    }
+                }
+            }
+            //Um atacante sozinho raramente é perigoso
+            if (attackers >= 2) {
+                midgame += sign * attackWeight * attackers / 2;
+            }
+
+            int king = board.kingSquare(color);
+            int shield = Long.bitCount(SHIELD_MASK[color][king] & board.pieces(color, BitBoard.PAWN));
+            midgame += sign * shield * SHIELD_PAWN;
+        }
+
+        int phase = Math.min(board.getPhase(), PieceSquareTables.MAX_PHASE);
+        int score = (midgame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return (board.getSideToMove() == BitBoard.WHITE ? score : -score) + TEMPO;
+    }
+
+    public double getPawnHitRate() {
+        return pawnProbes == 0 ? 0 : (double) pawnHits / pawnProbes;
+    }
+
+    //Dobrados, isolados e passados dependem só dos peões, então ficam no cache
+    private void pawnStructure(BitBoard board, int index) {
+        int midgame = 0;
+        int endgame = 0;
+        for (int color = BitBoard.BLACK; color <= BitBoard.WHITE; color++) {
+            int sign = color == BitBoard.WHITE ? 1 : -1;
+            long pawns = board.pieces(color, BitBoard.PAWN);
+            long enemyPawns = board.pieces(color ^ 1, BitBoard.PAWN);
+            for (long bits = pawns; bits != 0; bits &= bits - 1) {
+                int square = Long.numberOfTrailingZeros(bits);
+                int file = square & 7;
+                int rank = color == BitBoard.WHITE ? square >>> 3 : 7 - (square >>> 3);
+
+                if ((PASSED_MASK[color][square] & (BitBoard.FILE_A << file) & pawns) != 0) {
+                    midgame += sign * DOUBLED_MIDGAME;
+                    endgame += sign * DOUBLED_ENDGAME;
+                }
+                if ((ADJACENT_FILES[file] & pawns) == 0) {
+                    midgame += sign * ISOLATED_MIDGAME;
+                    endgame += sign * ISOLATED_ENDGAME;
+                }
+                if ((PASSED_MASK[color][square] & enemyPawns) == 0) {
+                    midgame += sign * PASSED_MIDGAME[rank];
+                    endgame += sign * PASSED_ENDGAME[rank];
+                }
+            }
+        }
+        pawnKeys[index] = board.getPawnHash();
+        pawnMidgame[index] = midgame;
+        pawnEndgame[index] = endgame;
+    }
+
+    private static long attacks(int type, int square, long occupied) {
+        switch (type) {
+            case BitBoard.KNIGHT:
+                return Attacks.knight(square);
+            case BitBoard.BISHOP:
+                return Attacks.bishop(square, occupied);
+            case BitBoard.ROOK:
+                return Attacks.rook(square, occupied);
+            default:
+                return Attacks.queen(square, occupied);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package chess.engine;
+
+import chess.BitBoard;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class ParallelPerft {
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    public ParallelPerft(ForkJoinPool pool, int splitDepth) {
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    public ParallelPerft(int threads) {
+        this(new ForkJoinPool(threads), 2);
+    }
+
+    public long count(BitBoard board, int depth) {
+        return pool.invoke(new Subtree(new BitBoard(board), depth, splitDepth));
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    //Divide os primeiros níveis em tarefas, cada uma com a sua cópia do tabuleiro
+    private static class Subtree extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final BitBoard board;
+        private final int depth;
+        private final int split;
+
+        private Subtree(BitBoard board, int depth, int split) {
+            this.board = board;
+            this.depth = depth;
+            this.split = split;
+        }
+
+        @Override
+        protected Long compute() {
+            if (split == 0 || depth <= 2) {
+                return new Perft(depth).count(board, depth);
+            }
+            MoveList moves = new MoveList();
+            MoveGenerator.generate(board, moves);
+            List<Subtree> children = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                BitBoard child = new BitBoard(board);
+                child.makeMove(moves.get(i));
+                children.add(new Subtree(child, depth - 1, split - 1));
+            }
+            long nodes = 0;
+            for (Subtree task : invokeAll(children)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+}
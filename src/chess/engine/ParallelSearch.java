@@ -0,0 +1,124 @@
+package chess.engine;
+
+import chess.BitBoard;
+import chess.ChessMatch;
+import chess.tablebase.Tablebase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//Lazy SMP: todas as threads buscam a mesma raiz e só se comunicam pela tabela de transposição
+public class ParallelSearch {
+    private final TranspositionTable table;
+    private final Search[] searches;
+    private final ExecutorService helpers;
+
+    public ParallelSearch(TranspositionTable table, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A busca precisa de pelo menos 1 thread");
+        }
+        this.table = table;
+        searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table);
+            searches[i].setHelperId(i);
+        }
+        //Com 1 thread a busca roda inteira na thread de quem chamou, sem pool e determinística
+        helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, r -> {
+            Thread thread = new Thread(r, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ParallelSearch(int threads) {
+        this(new TranspositionTable(64), threads);
+    }
+
+    public int getThreads() {
+        return searches.length;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    //Os limites valem para a thread principal; os ajudantes param quando ela termina
+    public void setMaxDepth(int maxDepth) {
+        searches[0].setMaxDepth(maxDepth);
+    }
+
+    public void setTimeLimit(long timeLimit) {
+        searches[0].setTimeLimit(timeLimit);
+    }
+
+    public void setNodeLimit(long nodeLimit) {
+        searches[0].setNodeLimit(nodeLimit);
+    }
+
+    //A tablebase é compartilhada: todas as threads consultam o mesmo cache de blocos
+    public void setTablebase(Tablebase tablebase) {
+        for (Search search : searches) {
+            search.setTablebase(tablebase);
+        }
+    }
+
+    public void stop() {
+        for (Search search : searches) {
+            search.stop();
+        }
+    }
+
+    public SearchResult search(ChessMatch match) {
+        return search(match.copyPosition());
+    }
+
+    public SearchResult search(BitBoard position) {
+        if (helpers == null) {
+            return searches[0].search(position);
+        }
+        List<Future<?>> running = new ArrayList<>(searches.length - 1);
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            helper.reset();
+            running.add(helpers.submit(() -> helper.iterate(position)));
+        }
+        searches[0].reset();
+        SearchResult result;
+        try {
+            result = searches[0].iterate(position);
+        } finally {
+            for (int i = 1; i < searches.length; i++) {
+                searches[i].stop();
+            }
+            for (Future<?> future : running) {
+                await(future);
+            }
+        }
+        long nodes = 0;
+        for (Search search : searches) {
+            nodes += search.getNodes();
+        }
+        return result.withNodes(nodes);
+    }
+
+    public void shutdown() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro em uma thread da busca", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package chess.engine;
+
+import chess.BitBoard;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+import java.io.PrintStream;
+
+public class Perft {
+    private final MoveList[] lists;
+
+    public Perft(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Profundidade negativa: " + maxDepth);
+        }
+        lists = new MoveList[maxDepth + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+    }
+
+    //Folhas até a profundidade dada; no último nível só conta os lances
+    public long count(BitBoard board, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = lists[depth];
+        MoveGenerator.generate(board, moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            nodes += count(board, depth - 1);
+            board.unmakeMove(move);
+        }
+        return nodes;
+    }
+
+    //Mostra o total de cada lance da raiz, para achar onde uma contagem diverge
+    public long divide(BitBoard board, int depth, PrintStream out) {
+        if (depth < 0 || depth >= lists.length) {
+            throw new IllegalArgumentException("Profundidade fora de 0.." + (lists.length - 1) + ": " + depth);
+        }
+        //Sem lances da raiz para mostrar: a própria posição é o único nó
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = lists[depth];
+        MoveGenerator.generate(board, moves);
+        long total = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            long nodes = count(board, depth - 1);
+            board.unmakeMove(move);
+            out.println(Move.toString(move) + ": " + nodes);
+            total += nodes;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,440 @@
+package chess.engine;
+
+import chess.BitBoard;
+import chess.ChessMatch;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+import chess.tablebase.Tablebase;
+
+import java.util.Arrays;
+
+public class Search {
+    public static final int INFINITY = 32000;
+    public static final int MATE = 31000;
+    public static final int MAX_PLY = 64;
+    //Placares acima disso são mate; os da tablebase vão além do horizonte da busca
+    public static final int MATE_BOUND = MATE - MAX_PLY - 256;
+
+    //Ordem dos lances: lance da tabela, capturas (MVV-LVA) e promoções, killers, histórico
+    private static final int TT_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 27;
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    //O relógio só é consultado a cada CHECK_INTERVAL nós
+    private static final int CHECK_INTERVAL = 2048;
+
+    private final TranspositionTable table;
+    private final Evaluation evaluation = new Evaluation();
+    private final MoveList[] lists = new MoveList[MAX_PLY + 1];
+    private final int[][] scores = new int[MAX_PLY + 1][256];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][] history = new int[12][64];
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+
+    private int maxDepth = MAX_PLY;
+    private long timeLimit;
+    private long nodeLimit;
+    private Tablebase tablebase;
+
+    //0 = busca principal; os ajudantes do Lazy SMP começam em profundidades alternadas
+    private int helperId;
+
+    private BitBoard board;
+    private long nodes;
+    private long deadline;
+    private volatile boolean stopped;
+
+    public Search(TranspositionTable table) {
+        this.table = table;
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+    }
+
+    public Search() {
+        this(new TranspositionTable(16));
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 1 || maxDepth > MAX_PLY) {
+            throw new IllegalArgumentException("Profundidade deve estar entre 1 e " + MAX_PLY);
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    //Em milissegundos; 0 = sem limite
+    public void setTimeLimit(long timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    //0 = sem limite
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    //null desliga a consulta; com 3 peças ou menos a busca para na tabela
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    //Pode ser chamado de outra thread; a busca devolve a última iteração completa
+    public void stop() {
+        stopped = true;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public SearchResult search(ChessMatch match) {
+        return search(match.copyPosition());
+    }
+
+    public SearchResult search(BitBoard position) {
+        stopped = false;
+        return iterate(position);
+    }
+
+    void setHelperId(int helperId) {
+        this.helperId = helperId;
+    }
+
+    //Limpa o stop antes de a thread começar, para um stop() precoce não se perder
+    void reset() {
+        stopped = false;
+    }
+
+    SearchResult iterate(BitBoard position) {
+        long start = System.nanoTime();
+        board = new BitBoard(position);
+        nodes = 0;
+        deadline = timeLimit > 0 ? start + timeLimit * 1_000_000 : Long.MAX_VALUE;
+        if (helperId == 0) {
+            table.newSearch();
+        }
+        for (int[] k : killers) {
+            Arrays.fill(k, Move.NONE);
+        }
+        for (int[] h : history) {
+            Arrays.fill(h, 0);
+        }
+
+        MoveList rootMoves = new MoveList();
+        MoveGenerator.generate(board, rootMoves);
+        if (rootMoves.isEmpty()) {
+            int score = inCheck() ? -MATE : 0;
+            return new SearchResult(Move.NONE, score, 0, 0, System.nanoTime() - start, new int[0]);
+        }
+        if (tablebase != null && tablebase.probe(board) != Tablebase.UNKNOWN) {
+            return probeRoot(rootMoves, start);
+        }
+
+        int bestScore = 0;
+        int bestDepth = 0;
+        int[] bestPv = {rootMoves.get(0)};
+        for (int depth = 1 + (helperId & 1); depth <= maxDepth; depth++) {
+            int score = negamax(depth, -INFINITY, INFINITY, 0);
+            //Iteração interrompida: fica com a anterior
+            if (stopped || pvLength[0] == 0) {
+                break;
+            }
+            bestScore = score;
+            bestDepth = depth;
+            bestPv = Arrays.copyOf(pv[0], pvLength[0]);
+
+            if (Math.abs(score) >= MATE - depth) {
+                break;
+            }
+            //Não começa uma iteração que provavelmente não terminaria
+            if (timeLimit > 0 && System.nanoTime() - start > timeLimit * 500_000) {
+                break;
+            }
+        }
+        return new SearchResult(bestPv[0], bestScore, bestDepth, nodes, System.nanoTime() - start, bestPv);
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = 0;
+        if (ply >= MAX_PLY) {
+            return evaluation.evaluate(board);
+        }
+        //Na busca basta a posição repetir uma vez: se era boa, o adversário repete de novo
+        if (ply > 0 && (board.repetitions() > 0 || board.getHalfMoveClock() >= 100 || board.isInsufficientMaterial())) {
+            return 0;
+        }
+        if (ply > 0 && tablebase != null && Long.bitCount(board.occupied()) <= 3) {
+            int value = tablebase.probe(board);
+            if (value != Tablebase.UNKNOWN) {
+                return tablebaseScore(value, ply);
+            }
+        }
+        boolean inCheck = inCheck();
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0) {
+            return quiesce(alpha, beta, ply);
+        }
+        if (countNode()) {
+            return 0;
+        }
+
+        long key = board.getHash();
+        long entry = table.probe(key);
+        int ttMove = Move.NONE;
+        if (TranspositionTable.hasSearch(entry)) {
+            ttMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = lists[ply];
+        MoveGenerator.generate(board, moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        scoreMoves(moves, ply, ttMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickMove(moves, ply, i);
+            board.makeMove(move);
+            int score;
+            if (i == 0) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                //Janela nula: só repete com a janela cheia se o lance surpreender
+                score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            board.unmakeMove(move);
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (score >= beta) {
+                        if (isQuiet(move)) {
+                            rememberCutoff(move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    //Final resolvido: cada lance vira uma consulta e fica o de mate mais curto (ou defesa mais longa)
+    private SearchResult probeRoot(MoveList rootMoves, long start) {
+        int bestMove = Move.NONE;
+        int bestScore = -INFINITY;
+        for (int i = 0; i < rootMoves.size(); i++) {
+            int move = rootMoves.get(i);
+            board.makeMove(move);
+            int value = tablebase.probe(board);
+            //Sub-promoção para K+C ou K+B contra K, ou repetição tripla: empate
+            int score = value == Tablebase.UNKNOWN || board.repetitions() >= 2 ? 0 : -tablebaseScore(value, 1);
+            board.unmakeMove(move);
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+        }
+        nodes = rootMoves.size();
+        return new SearchResult(bestMove, bestScore, 0, nodes, System.nanoTime() - start, new int[] {bestMove});
+    }
+
+    private static int tablebaseScore(int value, int ply) {
+        if (value > 0) {
+            return MATE - ply - (value - 1);
+        }
+        if (value < 0) {
+            return -MATE + ply + (-value - 1);
+        }
+        return 0;
+    }
+
+    //Só capturas e promoções, até a posição ficar quieta; em check todos os lances
+    private int quiesce(int alpha, int beta, int ply) {
+        pvLength[ply] = 0;
+        if (countNode()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY) {
+            return evaluation.evaluate(board);
+        }
+        boolean inCheck = inCheck();
+        MoveList moves = lists[ply];
+        MoveGenerator.generate(board, moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        int bestScore = -INFINITY;
+        if (!inCheck) {
+            bestScore = evaluation.evaluate(board);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            if (bestScore > alpha) {
+                alpha = bestScore;
+            }
+        }
+
+        scoreMoves(moves, ply, Move.NONE);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickMove(moves, ply, i);
+            if (!inCheck && scores[ply][i] < CAPTURE_SCORE) {
+                break;
+            }
+            board.makeMove(move);
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            board.unmakeMove(move);
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    private boolean countNode() {
+        nodes++;
+        if (nodeLimit > 0 && nodes >= nodeLimit) {
+            stopped = true;
+        } else if ((nodes & (CHECK_INTERVAL - 1)) == 0 && System.nanoTime() >= deadline) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private boolean inCheck() {
+        int us = board.getSideToMove();
+        return board.isAttacked(board.kingSquare(us), us ^ 1);
+    }
+
+    private void scoreMoves(MoveList moves, int ply, int ttMove) {
+        int[] s = scores[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = Move.from(move);
+            int to = Move.to(move);
+            if (move == ttMove) {
+                s[i] = TT_MOVE_SCORE;
+            } else if (Move.isCapture(move)) {
+                int victim = Move.isEnPassant(move) ? BitBoard.PAWN : BitBoard.typeOf(board.pieceAt(to));
+                int attacker = BitBoard.typeOf(board.pieceAt(from));
+                s[i] = CAPTURE_SCORE + (victim + 1) * 8 - attacker + (Move.promotion(move) == BitBoard.QUEEN ? 64 : 0);
+            } else if (Move.promotion(move) == BitBoard.QUEEN) {
+                s[i] = CAPTURE_SCORE + 64;
+            } else if (move == killers[ply][0]) {
+                s[i] = KILLER_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                s[i] = KILLER_SCORE;
+            } else {
+                s[i] = history[board.pieceAt(from)][to];
+            }
+        }
+    }
+
+    //Seleção parcial: só ordena até onde a busca chegar antes do corte
+    private int pickMove(MoveList moves, int ply, int index) {
+        int[] s = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (s[i] > s[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            moves.swap(index, best);
+            int score = s[index];
+            s[index] = s[best];
+            s[best] = score;
+        }
+        return moves.get(index);
+    }
+
+    private static boolean isQuiet(int move) {
+        return !Move.isCapture(move) && Move.promotion(move) != BitBoard.QUEEN;
+    }
+
+    private void rememberCutoff(int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] h = history[board.pieceAt(Move.from(move))];
+        h[Move.to(move)] += depth * depth;
+        if (h[Move.to(move)] > HISTORY_LIMIT) {
+            for (int[] row : history) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+        }
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][0] = move;
+        System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+
+    //Mate guardado como distância a partir do nó, não da raiz
+    private static int toTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score + ply;
+        }
+        if (score <= -MATE_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score - ply;
+        }
+        if (score <= -MATE_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,179 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+
+    //Layout do long de dados
+    private static final int MOVE_BITS = 19;
+    private static final int SCORE_SHIFT = 19;
+    private static final int DEPTH_SHIFT = 35;
+    private static final int BOUND_SHIFT = 43;
+    private static final int CHECK_SHIFT = 45;
+    private static final int LEGAL_SHIFT = 46;
+    private static final int AGE_SHIFT = 54;
+    private static final long HAS_SEARCH = 1L << 62;
+    private static final long HAS_SUMMARY = 1L << 63;
+
+    private static final long SEARCH_FIELDS = ((1L << 45) - 1) | HAS_SEARCH;
+    private static final long SUMMARY_FIELDS = (0x1FFL << CHECK_SHIFT) | HAS_SUMMARY;
+
+    //Cada bucket tem duas entradas: a primeira prefere profundidade, a segunda é sempre substituída
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private volatile int age;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("A tabela precisa de pelo menos 1 MB");
+        }
+        long entries = ((long) megabytes << 20) / 16;
+        int buckets = Integer.highestOneBit((int) Math.min(entries / 2, 1 << 30));
+        keys = new long[buckets * 2];
+        data = new long[buckets * 2];
+        bucketMask = buckets - 1;
+    }
+
+    public long capacity() {
+        return keys.length;
+    }
+
+    //Chamado no começo de cada busca para envelhecer as entradas antigas
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+        hits.reset();
+        misses.reset();
+        stores.reset();
+    }
+
+    //Devolve os dados da entrada ou 0 se a posição não estiver na tabela
+    public long probe(long key) {
+        int index = index(key);
+        for (int i = index; i < index + 2; i++) {
+            long entry = data[i];
+            if ((keys[i] ^ entry) == key && entry != 0) {
+                hits.increment();
+                return entry;
+            }
+        }
+        misses.increment();
+        return 0;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        long entry = HAS_SEARCH
+                | (move & ((1L << MOVE_BITS) - 1))
+                | ((score & 0xFFFFL) << SCORE_SHIFT)
+                | ((long) Math.min(depth, 255) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT);
+        write(key, entry, depth, SEARCH_FIELDS);
+    }
+
+    public void storeSummary(long key, int legalMoves, boolean inCheck) {
+        long entry = HAS_SUMMARY
+                | ((long) Math.min(legalMoves, 255) << LEGAL_SHIFT)
+                | ((inCheck ? 1L : 0L) << CHECK_SHIFT);
+        write(key, entry, 0, SUMMARY_FIELDS);
+    }
+
+    private void write(long key, long entry, int depth, long fields) {
+        int index = index(key);
+        entry |= (long) age << AGE_SHIFT;
+        stores.increment();
+
+        for (int i = index; i < index + 2; i++) {
+            long old = data[i];
+            if ((keys[i] ^ old) == key && old != 0) {
+                //Mesma posição: junta os campos, sem trocar uma busca funda por uma rasa
+                if ((fields & HAS_SEARCH) != 0 && (old & HAS_SEARCH) != 0 && depth(old) > depth && bound(entry) != EXACT) {
+                    entry = (entry & ~SEARCH_FIELDS) | (old & SEARCH_FIELDS);
+                }
+                set(i, key, (old & ~fields & ~(0xFFL << AGE_SHIFT)) | entry);
+                return;
+            }
+        }
+        long preferred = data[index];
+        if (preferred == 0 || age(preferred) != age || depth >= depth(preferred)) {
+            set(index, key, entry);
+        } else {
+            set(index + 1, key, entry);
+        }
+    }
+
+    private void set(int i, long key, long entry) {
+        data[i] = entry;
+        keys[i] = key ^ entry;
+    }
+
+    private int index(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) << 1;
+    }
+
+    public static boolean hasSearch(long entry) {
+        return (entry & HAS_SEARCH) != 0;
+    }
+
+    public static boolean hasSummary(long entry) {
+        return (entry & HAS_SUMMARY) != 0;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & ((1L << MOVE_BITS) - 1));
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> SCORE_SHIFT);
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> BOUND_SHIFT) & 3);
+    }
+
+    public static boolean inCheck(long entry) {
+        return ((entry >>> CHECK_SHIFT) & 1) != 0;
+    }
+
+    public static int legalMoves(long entry) {
+        return (int) ((entry >>> LEGAL_SHIFT) & 0xFF);
+    }
+
+    private static int age(long entry) {
+        return (int) ((entry >>> AGE_SHIFT) & 0xFF);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+}
@@ -0,0 +1,153 @@
+package chess.event;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+//Anel de longs entre quem joga e quem assiste: as partidas publicam de qualquer thread e uma
+//thread de entrega passa cada trecho pronto do anel, de uma vez, para todos os inscritos.
+//Nenhum objeto é criado por evento; anel cheio faz quem publica esperar
+public class EventDispatcher implements AutoCloseable {
+    private static final GameEventListener[] NO_LISTENERS = new GameEventListener[0];
+    private static final long IDLE_PARK_NANOS = 50_000;
+    //Com o anel cheio quem publica gira só um pouco e depois dorme, sem queimar um núcleo
+    private static final int FULL_SPINS = 100;
+
+    private final long[] ring;
+    private final int mask;
+    //Sequência de cada posição do anel já escrita; -1 enquanto nada foi publicado nela
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+    private volatile GameEventListener[] listeners = NO_LISTENERS;
+    private volatile boolean running = true;
+    private final Thread thread;
+    private long batches;
+    private long errors;
+
+    public EventDispatcher(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2));
+        ring = new long[size];
+        mask = size - 1;
+        long[] empty = new long[size];
+        Arrays.fill(empty, -1);
+        published = new AtomicLongArray(empty);
+        thread = new Thread(this::dispatch, "game-events");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public EventDispatcher() {
+        this(1 << 16);
+    }
+
+    public synchronized void subscribe(GameEventListener listener) {
+        GameEventListener[] current = listeners;
+        GameEventListener[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = listener;
+        listeners = next;
+    }
+
+    public synchronized void unsubscribe(GameEventListener listener) {
+        GameEventListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                GameEventListener[] next = new GameEventListener[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                listeners = next;
+                return;
+            }
+        }
+    }
+
+    public void publish(long event) {
+        long sequence = claimed.getAndIncrement();
+        int spins = 0;
+        while (sequence - consumed >= ring.length) {
+            //Anel cheio: os inscritos estão atrasados
+            if (!running) {
+                return;
+            }
+            if (spins < FULL_SPINS) {
+                spins++;
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        int index = (int) sequence & mask;
+        ring[index] = event;
+        published.lazySet(index, sequence);
+    }
+
+    public long getPublished() {
+        return claimed.get();
+    }
+
+    public long getDelivered() {
+        return consumed;
+    }
+
+    //Só mudam na thread de entrega; lidos de fora são aproximados
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    //Espera entregar o que já foi publicado
+    public void flush() {
+        long target = claimed.get();
+        while (consumed < target && running) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    private void dispatch() {
+        long next = 0;
+        while (running) {
+            long end = next;
+            while (end - next < ring.length && published.get((int) end & mask) == end) {
+                end++;
+            }
+            if (end == next) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            //O trecho pode dar a volta no fim do anel: no máximo duas partes contíguas
+            int from = (int) next & mask;
+            int length = (int) (end - next);
+            int first = Math.min(length, ring.length - from);
+            deliver(from, first);
+            if (first < length) {
+                deliver(0, length - first);
+            }
+            batches++;
+            next = end;
+            consumed = end;
+        }
+    }
+
+    private void deliver(int offset, int length) {
+        GameEventListener[] current = listeners;
+        for (GameEventListener listener : current) {
+            try {
+                listener.onEvents(ring, offset, length);
+            } catch (RuntimeException e) {
+                //Um inscrito com erro não para a entrega para os outros
+                errors++;
+            }
+        }
+    }
+}
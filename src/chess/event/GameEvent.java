@@ -0,0 +1,103 @@
+package chess.event;
+
+import chess.BitBoard;
+import chess.Move;
+
+//Um evento cabe num long, para passar pelo anel sem criar objetos:
+//bits 0-18 lance (Move, já com captura, en passant, roque e promoção), 19-22 peça que moveu,
+//23-26 peça capturada + 1, 27 xeque, 28 xeque-mate, 29 empate (afogamento, repetição, 50 lances ou material), 30-31 tipo,
+//32-47 lances jogados depois do evento, 48-63 identificador da partida
+public final class GameEvent {
+    public static final int MOVE = 0;
+    public static final int UNDO = 1;
+    public static final int PROMOTION = 2;
+    //O identificador ocupa 16 bits; quem publica precisa manter a partida nesse intervalo
+    public static final int MAX_GAME_ID = 0xFFFF;
+    //Os lances jogados também: uma partida com mais de 65535 plies não pode publicar eventos
+    public static final int MAX_PLY = 0xFFFF;
+
+    private static final long CHECK = 1L << 27;
+    private static final long CHECKMATE = 1L << 28;
+    private static final long DRAW = 1L << 29;
+    //Pretas primeiro, na ordem dos códigos de peça do BitBoard
+    private static final String PIECES = "pnbrqkPNBRQK";
+
+    private GameEvent() {
+    }
+
+    public static long of(int kind, int gameId, int move, int piece, int captured, boolean check,
+                          boolean checkMate, boolean draw, int ply) {
+        if (gameId < 0 || gameId > MAX_GAME_ID) {
+            throw new IllegalArgumentException("Identificador de partida fora de 0.." + MAX_GAME_ID + ": " + gameId);
+        }
+        if (ply < 0 || ply > MAX_PLY) {
+            throw new IllegalArgumentException("Número de lances fora de 0.." + MAX_PLY + ": " + ply);
+        }
+        return (move & 0x7FFFFL)
+                | (long) piece << 19
+                | (long) (captured + 1) << 23
+                | (check ? CHECK : 0)
+                | (checkMate ? CHECKMATE : 0)
+                | (draw ? DRAW : 0)
+                | (long) kind << 30
+                | (long) ply << 32
+                | (long) gameId << 48;
+    }
+
+    public static int kind(long event) {
+        return (int) (event >>> 30) & 3;
+    }
+
+    public static int move(long event) {
+        return (int) event & 0x7FFFF;
+    }
+
+    public static int piece(long event) {
+        return (int) (event >>> 19) & 15;
+    }
+
+    //BitBoard.EMPTY quando não houve captura
+    public static int captured(long event) {
+        return ((int) (event >>> 23) & 15) - 1;
+    }
+
+    public static boolean isCheck(long event) {
+        return (event & CHECK) != 0;
+    }
+
+    public static boolean isCheckMate(long event) {
+        return (event & CHECKMATE) != 0;
+    }
+
+    //O motivo do empate está em ChessMatch.getResult ou no PositionSnapshot
+    public static boolean isDraw(long event) {
+        return (event & DRAW) != 0;
+    }
+
+    public static int ply(long event) {
+        return (int) (event >>> 32) & 0xFFFF;
+    }
+
+    public static int gameId(long event) {
+        return (int) (event >>> 48) & 0xFFFF;
+    }
+
+    public static String toString(long event) {
+        StringBuilder sb = new StringBuilder(32);
+        sb.append('#').append(gameId(event)).append(' ').append(ply(event)).append(' ');
+        sb.append(kind(event) == UNDO ? "desfez " : kind(event) == PROMOTION ? "promoveu " : "");
+        sb.append(PIECES.charAt(piece(event))).append(' ').append(Move.toString(move(event)));
+        if (captured(event) != BitBoard.EMPTY) {
+            sb.append(" x").append(PIECES.charAt(captured(event)));
+        }
+        if (isCheckMate(event)) {
+            sb.append(" xeque-mate");
+        } else if (isCheck(event)) {
+            sb.append(" xeque");
+        }
+        if (isDraw(event)) {
+            sb.append(" empate");
+        }
+        return sb.toString();
+    }
+}
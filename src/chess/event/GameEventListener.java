@@ -0,0 +1,7 @@
+package chess.event;
+
+//Recebe os eventos em lote, direto do anel do dispatcher: events[offset] até events[offset + length - 1].
+//O array é reaproveitado depois da chamada, então quem quiser guardar precisa copiar
+public interface GameEventListener {
+    void onEvents(long[] events, int offset, int length);
+}
@@ -0,0 +1,237 @@
+package chess.io;
+
+import chess.BitBoard;
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.Fen;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+//Arquivo binário de partidas, mapeado em memória:
+//cabeçalho (24 bytes): magic, versão, flags, número de partidas, offset do índice
+//partida: resultado (1), reservado (1), tamanho da FEN (2), lances (4), FEN, lances em 16 bits, hashes (opcional)
+//índice: offset de cada partida (8 bytes), então partida N e lance M são acesso direto
+public class GameArchive implements Closeable {
+    static final int MAGIC = 0x43484741;
+    static final short VERSION = 1;
+    static final int HASHES = 1;
+    static final int HEADER_SIZE = 24;
+    static final int RECORD_HEADER_SIZE = 8;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final String[] RESULTS = {"*", "1-0", "0-1", "1/2-1/2"};
+
+    //Um MappedByteBuffer vai até 2 GB: o arquivo é mapeado em pedaços de 1 GB que se sobrepõem
+    //em 8 bytes, então qualquer leitura de até 8 bytes cabe inteira no pedaço onde começa
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+    private static final int SEGMENT_OVERLAP = 8;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int games;
+    private final boolean hashes;
+    private final long indexOffset;
+
+    private GameArchive(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            throw new IOException("Arquivo de partidas inválido");
+        }
+        int count = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        segments = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = (long) i << SEGMENT_SHIFT;
+            long length = Math.min(size - start, (1L << SEGMENT_SHIFT) + SEGMENT_OVERLAP);
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            segments[i].order(ORDER);
+        }
+
+        if (getInt(0) != MAGIC) {
+            throw new IOException("Arquivo de partidas inválido");
+        }
+        if (getShort(4) != VERSION) {
+            throw new IOException("Versão de arquivo de partidas não suportada: " + getShort(4));
+        }
+        hashes = (getShort(6) & HASHES) != 0;
+        games = getInt(8);
+        indexOffset = getLong(12);
+        if (games < 0 || indexOffset < HEADER_SIZE || indexOffset + 8L * games > size) {
+            throw new IOException("Índice do arquivo de partidas corrompido");
+        }
+    }
+
+    public static GameArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new GameArchive(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getGameCount() {
+        return games;
+    }
+
+    public boolean hasHashes() {
+        return hashes;
+    }
+
+    public int getPlies(int game) {
+        return getInt(offset(game) + 4);
+    }
+
+    public String getResult(int game) {
+        return RESULTS[getByte(offset(game))];
+    }
+
+    //null quando a partida começa da posição inicial
+    public String getStartFen(int game) {
+        long offset = offset(game);
+        int length = getShort(offset + 2);
+        if (length == 0) {
+            return null;
+        }
+        char[] fen = new char[length];
+        for (int i = 0; i < length; i++) {
+            fen[i] = (char) getByte(offset + RECORD_HEADER_SIZE + i);
+        }
+        return new String(fen);
+    }
+
+    //Lance compactado (Move.pack); vira um Move com MoveList.findPacked na posição certa
+    public int getMove(int game, int ply) {
+        long offset = offset(game);
+        Objects.checkIndex(ply, getInt(offset + 4));
+        return getShort(movesOffset(offset) + 2L * ply) & 0xFFFF;
+    }
+
+    //Hash da posição depois do lance ply
+    public long getHash(int game, int ply) {
+        if (!hashes) {
+            throw new IllegalStateException("Arquivo gravado sem hashes");
+        }
+        long offset = offset(game);
+        int plies = getInt(offset + 4);
+        Objects.checkIndex(ply, plies);
+        return getLong(movesOffset(offset) + 2L * plies + 8L * ply);
+    }
+
+    //Primeiro lance depois do qual a partida chega na posição, ou -1; só lê os hashes
+    public int findPosition(int game, long hash) {
+        int plies = getPlies(game);
+        for (int ply = 0; ply < plies; ply++) {
+            if (getHash(game, ply) == hash) {
+                return ply;
+            }
+        }
+        return -1;
+    }
+
+    //Posição depois de plies lances, reproduzida só no BitBoard
+    public BitBoard toPosition(int game, int plies) {
+        long offset = offset(game);
+        int total = getInt(offset + 4);
+        Objects.checkIndex(plies, total + 1);
+        String fen = getStartFen(game);
+        BitBoard board = new BitBoard();
+        Fen.load(board, fen == null ? Fen.INITIAL : fen);
+        long moves = movesOffset(offset);
+        long hashes = moves + 2L * total;
+        MoveList legal = new MoveList();
+        for (int ply = 0; ply < plies; ply++) {
+            legal.clear();
+            MoveGenerator.generate(board, legal);
+            board.makeMove(unpack(legal, moves, game, ply));
+            checkHash(board.getHash(), hashes, game, ply);
+        }
+        return board;
+    }
+
+    public ChessMatch toMatch(int game, int plies) {
+        long offset = offset(game);
+        int total = getInt(offset + 4);
+        Objects.checkIndex(plies, total + 1);
+        String fen = getStartFen(game);
+        ChessMatch match = fen == null ? new ChessMatch() : ChessMatch.fromFen(fen);
+        long moves = movesOffset(offset);
+        long hashes = moves + 2L * total;
+        MoveList legal = new MoveList();
+        for (int ply = 0; ply < plies; ply++) {
+            match.getLegalMoves(legal);
+            match.performChessMove(unpack(legal, moves, game, ply));
+            checkHash(match.getHash(), hashes, game, ply);
+        }
+        return match;
+    }
+
+    public ChessMatch toMatch(int game) {
+        return toMatch(game, getPlies(game));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    static int resultCode(String result) {
+        for (int i = 0; i < RESULTS.length; i++) {
+            if (RESULTS[i].equals(result)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private int unpack(MoveList legal, long moves, int game, int ply) {
+        int move = legal.findPacked(getShort(moves + 2L * ply) & 0xFFFF);
+        if (move == Move.NONE) {
+            throw new ChessException("Lance ilegal no arquivo: partida " + game + ", lance " + ply);
+        }
+        return move;
+    }
+
+    private void checkHash(long hash, long hashes, int game, int ply) {
+        if (this.hashes && hash != getLong(hashes + 8L * ply)) {
+            throw new ChessException("Hash não confere: partida " + game + ", lance " + ply);
+        }
+    }
+
+    private long offset(int game) {
+        Objects.checkIndex(game, games);
+        return getLong(indexOffset + 8L * game);
+    }
+
+    private long movesOffset(long offset) {
+        return offset + RECORD_HEADER_SIZE + getShort(offset + 2);
+    }
+
+    private int getByte(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & SEGMENT_MASK));
+    }
+
+    private int getShort(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)].getShort((int) (position & SEGMENT_MASK));
+    }
+
+    private int getInt(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)].getInt((int) (position & SEGMENT_MASK));
+    }
+
+    private long getLong(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)].getLong((int) (position & SEGMENT_MASK));
+    }
+}
@@ -0,0 +1,136 @@
+package chess.io;
+
+import chess.BitBoard;
+import chess.ChessMatch;
+import chess.Fen;
+import chess.Move;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+//Grava as partidas em sequência e, no close, o índice de offsets e o cabeçalho
+public class GameArchiveWriter implements Closeable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(GameArchive.ORDER);
+    private final boolean hashes;
+    private final BitBoard board = new BitBoard();
+    private long[] keys = new long[256];
+    private long[] offsets = new long[1024];
+    private int games;
+    private long position;
+
+    public GameArchiveWriter(Path path, boolean hashes) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.hashes = hashes;
+        //O cabeçalho de verdade só é escrito no close, quando o índice já existe
+        buffer.put(new byte[GameArchive.HEADER_SIZE]);
+        position = GameArchive.HEADER_SIZE;
+    }
+
+    public void add(ChessMatch match, String result) throws IOException {
+        int[] moves = new int[match.getMoveCount()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = match.getMove(i);
+        }
+        add(match.getStartFen(), moves, moves.length, result);
+    }
+
+    //startFen null é a posição inicial; os lances precisam ser legais em sequência
+    public void add(String startFen, int[] moves, int plies, String result) throws IOException {
+        byte[] fen = startFen == null ? new byte[0] : startFen.getBytes(StandardCharsets.US_ASCII);
+        if (fen.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("FEN grande demais: " + fen.length + " bytes");
+        }
+        if (plies < 0 || plies > moves.length) {
+            throw new IllegalArgumentException("Número de lances fora de 0.." + moves.length + ": " + plies);
+        }
+        //Tudo o que pode falhar vem antes do primeiro byte: uma FEN inválida não deixa registro pela metade
+        if (hashes) {
+            if (keys.length < plies) {
+                keys = new long[Math.max(plies, keys.length * 2)];
+            }
+            Fen.load(board, startFen == null ? Fen.INITIAL : startFen);
+            for (int i = 0; i < plies; i++) {
+                board.makeMove(moves[i]);
+                keys[i] = board.getHash();
+            }
+        }
+        if (games == offsets.length) {
+            offsets = Arrays.copyOf(offsets, games * 2);
+        }
+        offsets[games++] = position;
+
+        ensure(GameArchive.RECORD_HEADER_SIZE);
+        buffer.put((byte) GameArchive.resultCode(result));
+        buffer.put((byte) 0);
+        buffer.putShort((short) fen.length);
+        buffer.putInt(plies);
+        for (int i = 0; i < fen.length; i++) {
+            ensure(1);
+            buffer.put(fen[i]);
+        }
+        for (int i = 0; i < plies; i++) {
+            ensure(2);
+            buffer.putShort(Move.pack(moves[i]));
+        }
+        position += GameArchive.RECORD_HEADER_SIZE + fen.length + 2L * plies;
+
+        if (hashes) {
+            for (int i = 0; i < plies; i++) {
+                ensure(8);
+                buffer.putLong(keys[i]);
+            }
+            position += 8L * plies;
+        }
+    }
+
+    public int getGameCount() {
+        return games;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            long indexOffset = position;
+            for (int i = 0; i < games; i++) {
+                ensure(8);
+                buffer.putLong(offsets[i]);
+            }
+            flush();
+
+            ByteBuffer header = ByteBuffer.allocate(GameArchive.HEADER_SIZE).order(GameArchive.ORDER);
+            header.putInt(GameArchive.MAGIC);
+            header.putShort(GameArchive.VERSION);
+            header.putShort((short) (hashes ? GameArchive.HASHES : 0));
+            header.putInt(games);
+            header.putLong(indexOffset);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
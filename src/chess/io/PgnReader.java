@@ -0,0 +1,167 @@
+package chess.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+//Lê uma partida por vez, então o arquivo pode ser maior que a memória
+public class PgnReader implements Closeable {
+    private final Reader in;
+    private final char[] buffer = new char[1 << 16];
+    private int position;
+    private int limit;
+    private final StringBuilder token = new StringBuilder(32);
+
+    public PgnReader(Reader in) {
+        this.in = in;
+    }
+
+    //Próxima partida, ou null no fim do arquivo
+    public PgnGame next() throws IOException {
+        PgnGame game = new PgnGame();
+        while (true) {
+            int c = peek();
+            if (c < 0) {
+                return game.isEmpty() ? null : game;
+            }
+            if (Character.isWhitespace(c)) {
+                position++;
+            } else if (c == '[') {
+                //Tag depois de lances: começou a próxima partida sem resultado no fim
+                if (!game.getMoves().isEmpty()) {
+                    return game;
+                }
+                position++;
+                readTag(game);
+            } else if (c == '{') {
+                skipUntil('}');
+            } else if (c == ';' || c == '%') {
+                skipUntil('\n');
+            } else if (c == '(') {
+                skipVariation();
+            } else if (c == '$') {
+                position++;
+                readToken();
+            } else if (c == ')' || c == '}' || c == ']') {
+                position++;
+            } else {
+                String move = readToken();
+                if (isResult(move)) {
+                    game.setResult(move);
+                    return game;
+                }
+                move = stripMoveNumber(move);
+                if (!move.isEmpty()) {
+                    game.getMoves().add(move);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readTag(PgnGame game) throws IOException {
+        token.setLength(0);
+        int c;
+        while ((c = read()) >= 0 && c != ']' && c != '"' && !Character.isWhitespace(c)) {
+            token.append((char) c);
+        }
+        String name = token.toString();
+        while (c >= 0 && c != '"' && c != ']') {
+            c = read();
+        }
+        token.setLength(0);
+        if (c == '"') {
+            while ((c = read()) >= 0 && c != '"') {
+                if (c == '\\') {
+                    c = read();
+                }
+                token.append((char) c);
+            }
+            while (c >= 0 && c != ']') {
+                c = read();
+            }
+        }
+        game.getTags().put(name, token.toString());
+    }
+
+    private String readToken() throws IOException {
+        token.setLength(0);
+        int c;
+        while ((c = peek()) >= 0 && !Character.isWhitespace(c) && "{}();[]$".indexOf(c) < 0) {
+            token.append((char) c);
+            position++;
+        }
+        return token.toString();
+    }
+
+    //Variantes podem ter variantes e comentários dentro
+    private void skipVariation() throws IOException {
+        int depth = 0;
+        int c;
+        while ((c = read()) >= 0) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                if (--depth == 0) {
+                    return;
+                }
+            } else if (c == '{') {
+                skipUntil('}');
+            }
+        }
+    }
+
+    private void skipUntil(char end) throws IOException {
+        int c;
+        while ((c = read()) >= 0 && c != end) {
+            //pula
+        }
+    }
+
+    //"12.", "12...", "..." e "12.e4" viram "" ou "e4"; "0-0" fica como está
+    private static String stripMoveNumber(String token) {
+        int i = 0;
+        while (i < token.length() && Character.isDigit(token.charAt(i))) {
+            i++;
+        }
+        if (i < token.length() && token.charAt(i) != '.') {
+            return token;
+        }
+        while (i < token.length() && token.charAt(i) == '.') {
+            i++;
+        }
+        return token.substring(i);
+    }
+
+    private static boolean isResult(String token) {
+        return token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*");
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+}
@@ -0,0 +1,165 @@
+package chess.io;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.Color;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+//Reproduz as partidas de um PGN em várias threads; a leitura fica na thread de quem chamou
+public class PgnReplayer {
+    private static final int BATCH = 64;
+    private static final int MAX_ERRORS = 10;
+
+    private final int threads;
+    private final LongAdder games = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder checkMates = new LongAdder();
+    private final ConcurrentLinkedQueue<String> errorMessages = new ConcurrentLinkedQueue<>();
+    private long nanos;
+
+    public PgnReplayer(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("O replay precisa de pelo menos 1 thread");
+        }
+        this.threads = threads;
+    }
+
+    public void replay(Reader in) throws IOException {
+        long start = System.nanoTime();
+        PgnReader reader = new PgnReader(in);
+        //Fila curta: se os workers atrasam, quem lê reproduz o lote e o arquivo não vai todo para a memória
+        ThreadPoolExecutor workers = threads == 1 ? null : new ThreadPoolExecutor(threads, threads,
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(threads * 2),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            List<PgnGame> batch = new ArrayList<>(BATCH);
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                batch.add(game);
+                if (batch.size() == BATCH) {
+                    submit(workers, batch);
+                    batch = new ArrayList<>(BATCH);
+                }
+            }
+            submit(workers, batch);
+        } finally {
+            if (workers != null) {
+                workers.shutdown();
+                awaitTermination(workers);
+            }
+            nanos += System.nanoTime() - start;
+        }
+    }
+
+    public long getGames() {
+        return games.sum();
+    }
+
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getCheckMates() {
+        return checkMates.sum();
+    }
+
+    public List<String> getErrorMessages() {
+        return new ArrayList<>(errorMessages);
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getGamesPerSecond() {
+        return nanos == 0 ? 0 : getGames() * 1e9 / nanos;
+    }
+
+    public double getMovesPerSecond() {
+        return nanos == 0 ? 0 : getMoves() * 1e9 / nanos;
+    }
+
+    //Joga a partida inteira e devolve a posição final; lance ilegal ou resultado incoerente é erro
+    public static ChessMatch play(PgnGame game) {
+        String fen = game.getTag("FEN");
+        ChessMatch match = fen != null ? ChessMatch.fromFen(fen) : new ChessMatch();
+        for (String san : game.getMoves()) {
+            if (match.getCheckMate() || match.getStalemate()) {
+                throw new ChessException("Lance depois do fim da partida: " + san);
+            }
+            match.performChessMove(match.parseSan(san));
+        }
+        if (match.getCheckMate()) {
+            String expected = match.getCurrantPlayer() == Color.WHITE ? "1-0" : "0-1";
+            if (!game.getResult().equals("*") && !game.getResult().equals(expected)) {
+                throw new ChessException("Resultado " + game.getResult() + " não confere com o xeque-mate");
+            }
+        }
+        return match;
+    }
+
+    private void submit(ThreadPoolExecutor workers, List<PgnGame> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (workers == null) {
+            replayBatch(batch);
+        } else {
+            workers.execute(() -> replayBatch(batch));
+        }
+    }
+
+    //Contadores por partida: um erro inesperado numa delas não some com o resto do lote
+    private void replayBatch(List<PgnGame> batch) {
+        for (PgnGame game : batch) {
+            try {
+                ChessMatch match = play(game);
+                moves.add(game.getMoves().size());
+                if (match.getCheckMate()) {
+                    checkMates.increment();
+                }
+            } catch (RuntimeException e) {
+                errors.increment();
+                if (errorMessages.size() < MAX_ERRORS) {
+                    errorMessages.add(describe(game) + ": " + e.getMessage());
+                }
+            } finally {
+                games.increment();
+            }
+        }
+    }
+
+    private static String describe(PgnGame game) {
+        String white = game.getTag("White");
+        String black = game.getTag("Black");
+        if (white == null && black == null) {
+            return "Partida sem nome";
+        }
+        return (white != null ? white : "?") + " x " + (black != null ? black : "?");
+    }
+
+    private static void awaitTermination(ThreadPoolExecutor workers) {
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                //espera os lotes que faltam
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
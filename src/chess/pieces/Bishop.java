@@ -1,7 +1,8 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
+import chess.BitBoard;
 import chess.ChessPiece;
 import chess.Color;
 
@@ -12,57 +13,14 @@ public class Bishop extends ChessPiece {
     }
 
     @Override
-    public boolean[][] possibleMoves() {
-            boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-            Position p = new Position(0,0);
-
-
-            //nw
-             p.setValues(position.getRows()-1,position.getColumns()-1);
-             while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)){
-                mat[p.getRows()][p.getColumns()] = true;
-                p.setValues(p.getRows()-1,p.getColumns()-1);
-            }
-
-            if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-                mat[p.getRows()][p.getColumns()] = true;
-            }
-
-            //ne
-            p.setValues(position.getRows()-1,position.getColumns()+1);
-            while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)){
-                mat[p.getRows()][p.getColumns()] = true;
-                p.setValues(p.getRows()-1,p.getColumns()+1);
-            }
-
-            if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-                mat[p.getRows()][p.getColumns()] = true;
-            }
-
-            //se
-            p.setValues(position.getRows()+1,position.getColumns()+1);
-            while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)){
-                mat[p.getRows()][p.getColumns()] = true;
-                p.setValues(p.getRows()+1,p.getColumns()+1);
-            }
-
-            if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-                mat[p.getRows()][p.getColumns()] = true;
-            }
-
-            //sw
-            p.setValues(position.getRows()+1,position.getColumns()-1);
-            while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)){
-                mat[p.getRows()][p.getColumns()] = true;
-                p.setValues(p.getRows()+1,p.getColumns()-1);
-            }
-
-            if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-                mat[p.getRows()][p.getColumns()] = true;
-            }
+    public long possibleMovesMask() {
+        return targets(Attacks.bishop(square(), getBitBoard().occupied()));
+    }
 
-            return mat;
-        }
+    @Override
+    public int getType() {
+        return BitBoard.BISHOP;
+    }
 
     @Override
     public String toString() {
@@ -1,7 +1,8 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
+import chess.BitBoard;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
@@ -15,103 +16,40 @@ public class King extends ChessPiece {
     }
 
     @Override
-    public String toString() {
-        return "K";
+    public int getType() {
+        return BitBoard.KING;
     }
 
-    private boolean canMove(Position position){
-        ChessPiece p = (ChessPiece) getBoard().piece(position);
-        return p == null || p.getColor() != getColor();
+    @Override
+    public String toString() {
+        return "K";
     }
 
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
-        Position p = new Position(0, 0);
-
-        //Cima
-        p.setValues(position.getRows() - 1, position.getColumns());
-
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        //Abaixo
-        p.setValues(position.getRows() + 1, position.getColumns());
-
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        //Esquerda
-        p.setValues(position.getRows(), position.getColumns() - 1);
-
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        //Direita
-        p.setValues(position.getRows(), position.getColumns() + 1);
-
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        //nw
-        p.setValues(position.getRows() - 1, position.getColumns() - 1);
-
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        //ne
-        p.setValues(position.getRows() - 1, position.getColumns() + 1);
-
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        //sw
-        p.setValues(position.getRows() + 1, position.getColumns() - 1);
-
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        //se
-        p.setValues(position.getRows() + 1, position.getColumns() + 1);
-
-        if (getBoard().positionExists(p) && canMove(p)) {
-            mat[p.getRows()][p.getColumns()] = true;
-        }
+    public long possibleMovesMask() {
+        int square = square();
+        long moves = targets(Attacks.king(square));
 
         //Castling
         if (getMoveCount() == 0 && !chessMatch.getCheck()) {
+            long occupied = getBitBoard().occupied();
             //Kingside
-            Position posT1 = new Position(position.getRows(), position.getColumns() + 3);
-            if (testRookCastling(posT1)) {
-                Position p1 = new Position(position.getRows(), position.getColumns() + 1);
-                Position p2 = new Position(position.getRows(), position.getColumns() + 2);
-                if (getBoard().piece(p1) == null && getBoard().piece(p2) == null) {
-                    mat[position.getRows()][position.getColumns() + 2] = true;
-                }
+            if (testRookCastling(square + 3) && (occupied & (3L << (square + 1))) == 0) {
+                moves |= 1L << (square + 2);
             }
-                //Queenside
-            Position posT2 = new Position(position.getRows(), position.getColumns() - 4);
-                if (testRookCastling(posT2)) {
-                    Position p1 = new Position(position.getRows(), position.getColumns() - 1);
-                    Position p2 = new Position(position.getRows(), position.getColumns() - 2);
-                    Position p3 = new Position(position.getRows(), position.getColumns() - 3);
-                    if (getBoard().piece(p1) == null && getBoard().piece(p2) == null&& getBoard().piece(p3) == null) {
-                        mat[position.getRows()][position.getColumns() - 2] = true;
-                    }
-                }
+            //Queenside
+            if (testRookCastling(square - 4) && (occupied & (7L << (square - 3))) == 0) {
+                moves |= 1L << (square - 2);
             }
-            return mat;
         }
-        private boolean testRookCastling(Position position){
-        ChessPiece p = (ChessPiece) getBoard().piece(position);
-        return p!=null && p instanceof Rook && p.getColor()==getColor() && p.getMoveCount()==0;
+        return moves;
+    }
+
+    private boolean testRookCastling(int square){
+        if (getBitBoard().pieceAt(square) != BitBoard.piece(getColor(), BitBoard.ROOK)) {
+            return false;
+        }
+        ChessPiece p = (ChessPiece) getBoard().piece(BitBoard.row(square), BitBoard.column(square));
+        return p.getMoveCount() == 0;
     }
 }
@@ -1,7 +1,8 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
+import chess.BitBoard;
 import chess.ChessPiece;
 import chess.Color;
 
@@ -11,61 +12,14 @@ public class Knight extends ChessPiece {
         super(board, color);
     }
 
-    private boolean canMove(Position position){
-        ChessPiece p = (ChessPiece) getBoard().piece(position);
-        return p == null || p.getColor() != getColor();
+    @Override
+    public long possibleMovesMask() {
+        return targets(Attacks.knight(square()));
     }
 
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position p = new Position(0,0);
-
-        p.setValues(position.getRows()-1,position.getColumns()-2);
-        if(getBoard().positionExists(p)&&canMove(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-
-
-        p.setValues(position.getRows()-2,position.getColumns()-1);
-        if(getBoard().positionExists(p)&&canMove(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-
-        p.setValues(position.getRows()-2,position.getColumns()+1);
-        if(getBoard().positionExists(p)&&canMove(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-
-        p.setValues(position.getRows()-1,position.getColumns()+2);
-        if(getBoard().positionExists(p)&&canMove(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        p.setValues(position.getRows()+1,position.getColumns()+2);
-        if(getBoard().positionExists(p)&&canMove(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        p.setValues(position.getRows()+2,position.getColumns()+1);
-        if(getBoard().positionExists(p)&&canMove(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        p.setValues(position.getRows()+2,position.getColumns()-1);
-        if(getBoard().positionExists(p)&&canMove(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        p.setValues(position.getRows()+1,position.getColumns()-2);
-        if(getBoard().positionExists(p)&&canMove(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        return mat;
+    public int getType() {
+        return BitBoard.KNIGHT;
     }
 
     @Override
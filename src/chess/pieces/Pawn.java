@@ -1,7 +1,8 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
+import chess.BitBoard;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
@@ -14,76 +15,41 @@ public class Pawn extends ChessPiece {
         this.chessMatch = chessMatch;
     }
 
+    @Override
+    public int getType() {
+        return BitBoard.PAWN;
+    }
+
     @Override
     public String toString() {
         return "P";
     }
 
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position p = new Position(0,0);
+    public long possibleMovesMask() {
+        BitBoard bitBoard = getBitBoard();
+        int square = square();
+        int color = getColor().ordinal();
+        long empty = ~bitBoard.occupied();
+        long bit = 1L << square;
+        long moves;
 
-        if(getColor()==Color.WHITE){
-            p.setValues(position.getRows()-1,position.getColumns());
-            if(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)){
-                mat[p.getRows()][p.getColumns()]=true;
-            }
-            p.setValues(position.getRows()-2,position.getColumns());
-            Position p2 = new Position(position.getRows()-1, position.getColumns());
-            if(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p) && getBoard().positionExists(p2) && !getBoard().thereIsAPiece(p2) &&getMoveCount()==0 ){
-                mat[p.getRows()][p.getColumns()]=true;
-            }
-            p.setValues(position.getRows()-1,position.getColumns()-1);
-            if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-                mat[p.getRows()][p.getColumns()]=true;
-            }
-            p.setValues(position.getRows()-1,position.getColumns()+1);
-            if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-                mat[p.getRows()][p.getColumns()]=true;
-            }
+        if (color == BitBoard.WHITE) {
+            long single = (bit << 8) & empty;
+            moves = single | ((single << 8) & empty & BitBoard.RANK_4);
+        } else {
+            long single = (bit >>> 8) & empty;
+            moves = single | ((single >>> 8) & empty & BitBoard.RANK_5);
+        }
+        long attacks = Attacks.pawn(color, square);
+        moves |= attacks & bitBoard.colorBits(color ^ 1);
 
-            //En passant white
-            if(position.getRows()==3) {
-                Position left = new Position(position.getRows(), position.getColumns() - 1);
-                if (getBoard().positionExists(left) && isThereOpponentPiece(left) && getBoard().thereIsAPiece(left) && getBoard().piece(left) == chessMatch.getEnPassantVulnerable()) {
-                    mat[left.getRows() - 1][left.getColumns()] = true;
-                }
-                Position right = new Position(position.getRows(), position.getColumns() + 1);
-                if (getBoard().positionExists(right) && isThereOpponentPiece(right) && getBoard().thereIsAPiece(right) && getBoard().piece(right) == chessMatch.getEnPassantVulnerable()) {
-                    mat[right.getRows() - 1][right.getColumns()] = true;
-                }
-            }
-        }else{
-            p.setValues(position.getRows()+1,position.getColumns());
-            if(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)){
-                mat[p.getRows()][p.getColumns()]=true;
-            }
-            p.setValues(position.getRows()+2,position.getColumns());
-            Position p2 = new Position(position.getRows()+1, position.getColumns());
-            if(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p) && getBoard().positionExists(p2) && !getBoard().thereIsAPiece(p2) &&getMoveCount()==0 ){
-                mat[p.getRows()][p.getColumns()]=true;
-            }
-            p.setValues(position.getRows()+1,position.getColumns()-1);
-            if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-                mat[p.getRows()][p.getColumns()]=true;
-            }
-            p.setValues(position.getRows()+1,position.getColumns()+1);
-            if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-                mat[p.getRows()][p.getColumns()]=true;
-            }
-            //En passant black
-            if(position.getRows() == 4) {
-                Position left = new Position(position.getRows(), position.getColumns() - 1);
-                if (getBoard().positionExists(left) && isThereOpponentPiece(left) && getBoard().thereIsAPiece(left) && getBoard().piece(left) == chessMatch.getEnPassantVulnerable()) {
-                    mat[left.getRows() + 1][left.getColumns()] = true;
-                }
-                Position right = new Position(position.getRows(), position.getColumns() + 1);
-                if (getBoard().positionExists(right) && isThereOpponentPiece(right) && getBoard().thereIsAPiece(right) && getBoard().piece(right) == chessMatch.getEnPassantVulnerable()) {
-                    mat[right.getRows() + 1][right.getColumns()] = true;
-                }
-            }
+        //En passant
+        ChessPiece vulnerable = chessMatch.getEnPassantVulnerable();
+        if (vulnerable != null && vulnerable.getColor() != getColor()) {
+            int target = squareOf(vulnerable) + (color == BitBoard.WHITE ? 8 : -8);
+            moves |= attacks & (1L << target);
         }
-        return mat;
+        return moves;
     }
 }
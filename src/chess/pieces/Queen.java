@@ -1,109 +1,25 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Attacks;
+import chess.BitBoard;
 import chess.ChessPiece;
 import chess.Color;
 
 public class Queen extends ChessPiece {
+
     public Queen(Board board, Color color) {
         super(board, color);
     }
 
     @Override
-    public boolean[][] possibleMoves() {
-
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-        Position p = new Position(0,0);
-
-
-        //Cima
-        p.setValues(position.getRows()-1,position.getColumns());
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-            p.setRows(p.getRows()-1);
-        }
-
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        //Baixo
-        p.setValues(position.getRows()+1,position.getColumns());
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-            p.setRows(p.getRows()+1);
-        }
-
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        //Esquerda
-        p.setValues(position.getRows(),position.getColumns()-1);
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-            p.setColumns(p.getColumns()-1);
-        }
-
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-        //Direita
-        p.setValues(position.getRows(),position.getColumns()+1);
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-            p.setColumns(p.getColumns()+1);
-        }
-
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-        //nw
-        p.setValues(position.getRows()-1,position.getColumns()-1);
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-            p.setValues(p.getRows()-1,p.getColumns()-1);
-        }
-
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        //ne
-        p.setValues(position.getRows()-1,position.getColumns()+1);
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-            p.setValues(p.getRows()-1,p.getColumns()+1);
-        }
-
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        //se
-        p.setValues(position.getRows()+1,position.getColumns()+1);
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-            p.setValues(p.getRows()+1,p.getColumns()+1);
-        }
-
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
-
-        //sw
-        p.setValues(position.getRows()+1,position.getColumns()-1);
-        while(getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-            p.setValues(p.getRows()+1,p.getColumns()-1);
-        }
-
-        if(getBoard().positionExists(p) && isThereOpponentPiece(p)){
-            mat[p.getRows()][p.getColumns()] = true;
-        }
+    public long possibleMovesMask() {
+        return targets(Attacks.queen(square(), getBitBoard().occupied()));
+    }
 
-        return mat;
+    @Override
+    public int getType() {
+        return BitBoard.QUEEN;
     }
 
     @Override
@@ -0,0 +1,176 @@
+package chess.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Hospeda muitas partidas sem uma thread por partida: cada sessão pertence a um shard (id % shards)
+//e o shard processa os pedidos dela em sequência. Protocolo de linhas, uma resposta por pedido:
+//  NEW [fen]          -> OK <id>
+//  MOVE <id> <lance>  -> OK <san> PLAYING|CHECK|CHECKMATE|<empate de GameResult>  (SAN ou coordenadas: e2e4, e7e8q)
+//  MOVES <id>         -> OK <lances legais em coordenadas>
+//  FEN <id>, UNDO <id>, CLOSE <id>, STATS
+//Erros voltam como ERR <mensagem>
+public class MatchServer implements Closeable {
+    private final Shard[] shards;
+    private final AtomicInteger nextShard = new AtomicInteger();
+    private ServerSocket serverSocket;
+
+    public MatchServer(int shards, long idleMillis, int queueCapacity) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("O servidor precisa de pelo menos 1 shard");
+        }
+        this.shards = new Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new Shard(i, shards, TimeUnit.MILLISECONDS.toNanos(idleMillis), queueCapacity);
+        }
+    }
+
+    public MatchServer(int shards) {
+        this(shards, 30_000, 4096);
+    }
+
+    //Atende conexões locais (127.0.0.1); porta 0 escolhe uma livre, veja getPort
+    public void listen(int port) throws IOException {
+        serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "match-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public CompletableFuture<String> submit(String line) {
+        Request request;
+        try {
+            request = parse(line);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture("ERR " + e.getMessage());
+        }
+        if (request.command.equals("STATS")) {
+            return CompletableFuture.completedFuture("OK " + getStats());
+        }
+        Shard shard = request.command.equals("NEW")
+                ? shards[Math.floorMod(nextShard.getAndIncrement(), shards.length)]
+                : shards[(int) (request.session % shards.length)];
+        try {
+            shard.submit(request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture("ERR Interrompido");
+        }
+        return request.reply;
+    }
+
+    public String execute(String line) {
+        try {
+            return submit(line).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERR Interrompido";
+        } catch (ExecutionException e) {
+            return "ERR " + e.getCause().getMessage();
+        }
+    }
+
+    //Cada shard publica os próprios números na sua thread; aqui só se juntam
+    public ServerStats getStats() {
+        List<CompletableFuture<String>> pending = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            Request request = new Request("STATS", 0, "");
+            try {
+                shard.submit(request);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            pending.add(request.reply);
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture<?>[]::new)).join();
+        List<ServerStats> stats = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            stats.add(shard.getStats());
+        }
+        return ServerStats.combine(stats);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Shard shard : shards) {
+            shard.stop();
+        }
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+    }
+
+    private static Request parse(String line) {
+        String text = line.trim();
+        int space = text.indexOf(' ');
+        String command = (space < 0 ? text : text.substring(0, space)).toUpperCase(Locale.ROOT);
+        String rest = space < 0 ? "" : text.substring(space + 1).trim();
+        if (command.equals("NEW") || command.equals("STATS")) {
+            return new Request(command, 0, rest);
+        }
+        space = rest.indexOf(' ');
+        String id = space < 0 ? rest : rest.substring(0, space);
+        try {
+            long session = Long.parseLong(id);
+            if (session < 0) {
+                throw new NumberFormatException();
+            }
+            return new Request(command, session, space < 0 ? "" : rest.substring(space + 1).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Identificador de partida inválido: " + id);
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread connection = new Thread(() -> serve(socket), "match-connection");
+                connection.setDaemon(true);
+                connection.start();
+            } catch (IOException e) {
+                //socket fechado no close
+            }
+        }
+    }
+
+    //Uma conexão manda um pedido por vez; para muitas partidas o cliente intercala os ids
+    private void serve(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+            s.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                out.write(execute(line));
+                out.newLine();
+                out.flush();
+            }
+        } catch (IOException e) {
+            //cliente desconectou
+        }
+    }
+}
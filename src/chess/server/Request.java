@@ -0,0 +1,17 @@
+package chess.server;
+
+import java.util.concurrent.CompletableFuture;
+
+class Request {
+    final String command;
+    final long session;
+    final String argument;
+    final long created = System.nanoTime();
+    final CompletableFuture<String> reply = new CompletableFuture<>();
+
+    Request(String command, long session, String argument) {
+        this.command = command;
+        this.session = session;
+        this.argument = argument;
+    }
+}
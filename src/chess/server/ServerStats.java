@@ -0,0 +1,54 @@
+package chess.server;
+
+import java.util.List;
+
+public class ServerStats {
+    private final int sessions;
+    private final int liveSessions;
+    private final long moves;
+    private final LatencyHistogram moveLatency;
+
+    public ServerStats(int sessions, int liveSessions, long moves, LatencyHistogram moveLatency) {
+        this.sessions = sessions;
+        this.liveSessions = liveSessions;
+        this.moves = moves;
+        this.moveLatency = moveLatency;
+    }
+
+    static ServerStats combine(List<ServerStats> shards) {
+        int sessions = 0;
+        int live = 0;
+        long moves = 0;
+        LatencyHistogram latency = new LatencyHistogram();
+        for (ServerStats shard : shards) {
+            sessions += shard.sessions;
+            live += shard.liveSessions;
+            moves += shard.moves;
+            latency.merge(shard.moveLatency);
+        }
+        return new ServerStats(sessions, live, moves, latency);
+    }
+
+    public int getSessions() {
+        return sessions;
+    }
+
+    //Sessões com ChessMatch em memória; as outras estão compactadas
+    public int getLiveSessions() {
+        return liveSessions;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+
+    //Da chegada do pedido na fila do shard até a resposta pronta
+    public LatencyHistogram getMoveLatency() {
+        return moveLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "sessions=" + sessions + " live=" + liveSessions + " moves=" + moves + " " + moveLatency.summary();
+    }
+}
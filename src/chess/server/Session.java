@@ -0,0 +1,58 @@
+package chess.server;
+
+import chess.ChessMatch;
+
+//Uma partida hospedada; parada, vira só a FEN inicial e a lista de lances
+class Session {
+    private final long id;
+    private ChessMatch match;
+    private String startFen;
+    private int[] moves;
+    private long lastAccess;
+
+    Session(long id, ChessMatch match, long now) {
+        this.id = id;
+        this.match = match;
+        lastAccess = now;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    boolean isCompacted() {
+        return match == null;
+    }
+
+    //Partida pronta para jogar, reconstruída se estava compactada
+    ChessMatch open(long now) {
+        lastAccess = now;
+        if (match == null) {
+            ChessMatch restored = startFen == null ? new ChessMatch() : ChessMatch.fromFen(startFen);
+            for (int move : moves) {
+                restored.performChessMove(move);
+            }
+            match = restored;
+            moves = null;
+            startFen = null;
+        }
+        return match;
+    }
+
+    //Troca o ChessMatch inteiro (tabuleiro, peças, pilhas) por 4 bytes por lance
+    void compact() {
+        if (match == null) {
+            return;
+        }
+        moves = new int[match.getMoveCount()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = match.getMove(i);
+        }
+        startFen = match.getStartFen();
+        match = null;
+    }
+}
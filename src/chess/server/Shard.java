@@ -0,0 +1,186 @@
+package chess.server;
+
+import chess.ChessMatch;
+import chess.Move;
+import chess.MoveList;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+//Uma thread dona de um pedaço das sessões: os pedidos chegam pela fila e rodam em ordem,
+//então as partidas nunca são tocadas por duas threads e não precisam de trava
+class Shard implements Runnable {
+    private static final long SWEEP_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int index;
+    private final int shards;
+    private final long idleNanos;
+    private final BlockingQueue<Request> mailbox;
+    private final Map<Long, Session> sessions = new HashMap<>();
+    private final LatencyHistogram moveLatency = new LatencyHistogram();
+    private final MoveList legal = new MoveList();
+    private final Thread thread;
+    private long nextId;
+    private long moves;
+    private int live;
+    private long lastSweep = System.nanoTime();
+    private volatile boolean running = true;
+    private volatile ServerStats stats = new ServerStats(0, 0, 0, new LatencyHistogram());
+
+    Shard(int index, int shards, long idleNanos, int capacity) {
+        this.index = index;
+        this.shards = shards;
+        this.idleNanos = idleNanos;
+        mailbox = new ArrayBlockingQueue<>(capacity);
+        thread = new Thread(this, "match-shard-" + index);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    //Fila cheia segura quem chama: é o limite de pedidos pendentes por shard
+    void submit(Request request) throws InterruptedException {
+        mailbox.put(request);
+    }
+
+    //Estatísticas publicadas pelo próprio shard no último STATS ou na última varredura
+    ServerStats getStats() {
+        return stats;
+    }
+
+    void stop() {
+        running = false;
+        thread.interrupt();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                Request request = mailbox.poll(SWEEP_NANOS, TimeUnit.NANOSECONDS);
+                if (request != null) {
+                    request.reply.complete(handle(request));
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+            long now = System.nanoTime();
+            if (now - lastSweep >= SWEEP_NANOS) {
+                sweep(now);
+            }
+        }
+        Request request;
+        while ((request = mailbox.poll()) != null) {
+            request.reply.complete("ERR Servidor encerrado");
+        }
+    }
+
+    private String handle(Request request) {
+        long now = System.nanoTime();
+        try {
+            switch (request.command) {
+                case "NEW":
+                    return create(request, now);
+                case "STATS":
+                    publishStats();
+                    return "OK";
+                default:
+                    break;
+            }
+            Session session = sessions.get(request.session);
+            if (session == null) {
+                return "ERR Partida inexistente: " + request.session;
+            }
+            if (request.command.equals("CLOSE")) {
+                sessions.remove(request.session);
+                if (!session.isCompacted()) {
+                    live--;
+                }
+                return "OK";
+            }
+            boolean compacted = session.isCompacted();
+            ChessMatch match = session.open(now);
+            if (compacted) {
+                live++;
+            }
+            switch (request.command) {
+                case "MOVE":
+                    String reply = move(match, request.argument);
+                    moveLatency.record(System.nanoTime() - request.created);
+                    return reply;
+                case "MOVES":
+                    return legalMoves(match);
+                case "FEN":
+                    return "OK " + match.toFen();
+                case "UNDO":
+                    match.undoMove();
+                    return "OK " + status(match);
+                default:
+                    return "ERR Comando desconhecido: " + request.command;
+            }
+        } catch (RuntimeException e) {
+            //Erro numa partida não derruba o shard nem as outras partidas
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    private String create(Request request, long now) {
+        ChessMatch match = request.argument.isEmpty() ? new ChessMatch() : ChessMatch.fromFen(request.argument);
+        long id = nextId++ * shards + index;
+        sessions.put(id, new Session(id, match, now));
+        live++;
+        return "OK " + id;
+    }
+
+    private String move(ChessMatch match, String text) {
+        if (match.getResult().isOver()) {
+            return "ERR A partida já terminou";
+        }
+        match.getLegalMoves(legal);
+        int move = Move.parse(legal, text);
+        if (move == Move.NONE) {
+            move = match.parseSan(text);
+        }
+        String san = match.toSan(move);
+        match.performChessMove(move);
+        moves++;
+        return "OK " + san + " " + status(match);
+    }
+
+    private String legalMoves(ChessMatch match) {
+        match.getLegalMoves(legal);
+        StringBuilder sb = new StringBuilder(4 + legal.size() * 6).append("OK");
+        for (int i = 0; i < legal.size(); i++) {
+            sb.append(' ').append(Move.toString(legal.get(i)));
+        }
+        return sb.toString();
+    }
+
+    private static String status(ChessMatch match) {
+        if (match.getCheckMate()) {
+            return "CHECKMATE";
+        }
+        if (match.getResult().isOver()) {
+            return match.getResult().name();
+        }
+        return match.getCheck() ? "CHECK" : "PLAYING";
+    }
+
+    //Partidas paradas há mais de idleNanos viram lista de lances
+    private void sweep(long now) {
+        lastSweep = now;
+        for (Session session : sessions.values()) {
+            if (!session.isCompacted() && now - session.getLastAccess() > idleNanos) {
+                session.compact();
+                live--;
+            }
+        }
+        publishStats();
+    }
+
+    private void publishStats() {
+        stats = new ServerStats(sessions.size(), live, moves, moveLatency.copy());
+    }
+}
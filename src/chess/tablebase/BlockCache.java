@@ -0,0 +1,52 @@
+package chess.tablebase;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Blocos já descomprimidos, do menos para o mais usado; passando da capacidade sai o mais antigo.
+//Uma trava só: a busca paralela consulta pouco a tabela e o trabalho pesado (inflar) fica fora dela
+final class BlockCache {
+    private final int capacity;
+    private final LinkedHashMap<Integer, byte[]> blocks;
+    private long hits;
+    private long misses;
+
+    BlockCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("O cache precisa de pelo menos 1 bloco");
+        }
+        this.capacity = capacity;
+        blocks = new LinkedHashMap<Integer, byte[]>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, byte[]> eldest) {
+                return size() > BlockCache.this.capacity;
+            }
+        };
+    }
+
+    synchronized byte[] get(int key) {
+        byte[] block = blocks.get(key);
+        if (block != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return block;
+    }
+
+    synchronized void put(int key, byte[] block) {
+        blocks.put(key, block);
+    }
+
+    synchronized int size() {
+        return blocks.size();
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,249 @@
+package chess.tablebase;
+
+import chess.BitBoard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+//Finais de K+D, K+T e K+P contra K resolvidos: a consulta devolve a distância exata até o mate.
+//Arquivo: cabeçalho (16 bytes: magic, versão, tabelas, log2 do bloco), offsets dos blocos de cada
+//tabela e os blocos comprimidos com Deflater. O arquivo fica mapeado em memória e só os blocos
+//consultados são descomprimidos, num cache LRU
+public class Tablebase implements Closeable {
+    //Posição que nenhuma tabela cobre
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    static final int MAGIC = 0x43485442;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final int[] TYPES = {BitBoard.QUEEN, BitBoard.ROOK, BitBoard.PAWN};
+
+    //Índice: lado a jogar (forte ou fraco), rei forte, rei fraco, casa da peça
+    static final int STRONG = 0;
+    static final int WEAK = 1;
+    static final int ENTRIES = 1 << 19;
+
+    private static final int BLOCK_SHIFT = 13;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer file;
+    private final int blockShift;
+    private final long[][] offsets;
+    private final BlockCache cache;
+
+    private Tablebase(FileChannel channel, int cacheBlocks) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+            throw new IOException("Arquivo de tablebase inválido");
+        }
+        file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        file.order(ORDER);
+        if (file.getInt(0) != MAGIC) {
+            throw new IOException("Arquivo de tablebase inválido");
+        }
+        if (file.getShort(4) != VERSION) {
+            throw new IOException("Versão de tablebase não suportada: " + file.getShort(4));
+        }
+        blockShift = file.getInt(8);
+        if (file.getShort(6) != TYPES.length || blockShift < 6 || blockShift > 19) {
+            throw new IOException("Cabeçalho da tablebase corrompido");
+        }
+        int blocks = ENTRIES >>> blockShift;
+        offsets = new long[TYPES.length][blocks + 1];
+        int position = HEADER_SIZE;
+        for (long[] table : offsets) {
+            for (int i = 0; i <= blocks; i++) {
+                table[i] = file.getLong(position);
+                position += 8;
+                if (table[i] < position || table[i] > size || (i > 0 && table[i] < table[i - 1])) {
+                    throw new IOException("Índice da tablebase corrompido");
+                }
+            }
+        }
+        cache = new BlockCache(cacheBlocks);
+    }
+
+    public static Tablebase open(Path path, int cacheBlocks) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new Tablebase(channel, cacheBlocks);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    //Cache padrão: 32 blocos de 8 KB, um quarto das tabelas
+    public static Tablebase open(Path path) throws IOException {
+        return open(path, 32);
+    }
+
+    //Gera as três tabelas (alguns segundos) e grava o arquivo
+    public static void generate(Path path) throws IOException {
+        byte[] queen = TablebaseGenerator.generate(BitBoard.QUEEN, null, null);
+        byte[] rook = TablebaseGenerator.generate(BitBoard.ROOK, null, null);
+        byte[] pawn = TablebaseGenerator.generate(BitBoard.PAWN, queen, rook);
+        write(path, new byte[][] {queen, rook, pawn});
+    }
+
+    //0 = empate; positivo = quem joga dá mate, negativo = quem joga leva mate,
+    //em |valor| - 1 meio-lances com o melhor jogo dos dois lados; UNKNOWN fora das tabelas.
+    //Não considera a regra dos 50 lances
+    public int probe(BitBoard board) {
+        long occupied = board.occupied();
+        int count = Long.bitCount(occupied);
+        if (count == 2) {
+            return 0;
+        }
+        if (count != 3 || board.getCastlingRights() != 0) {
+            return UNKNOWN;
+        }
+        long kings = board.pieces(BitBoard.WHITE, BitBoard.KING) | board.pieces(BitBoard.BLACK, BitBoard.KING);
+        int square = Long.numberOfTrailingZeros(occupied & ~kings);
+        int piece = board.pieceAt(square);
+        int table = tableOf(BitBoard.typeOf(piece));
+        if (table < 0) {
+            return UNKNOWN;
+        }
+        //As tabelas guardam o lado forte como brancas: com a peça preta o tabuleiro é espelhado
+        int strong = BitBoard.colorOf(piece);
+        int flip = strong == BitBoard.WHITE ? 0 : 56;
+        int side = board.getSideToMove() == strong ? STRONG : WEAK;
+        int value = read(table, index(side, board.kingSquare(strong) ^ flip, board.kingSquare(strong ^ 1) ^ flip, square ^ flip));
+        if (value == 0) {
+            return 0;
+        }
+        return side == STRONG ? value : -value;
+    }
+
+    public static String describe(int value) {
+        if (value == UNKNOWN) {
+            return "Fora da tablebase";
+        }
+        if (value == 0) {
+            return "Empate";
+        }
+        int plies = Math.abs(value) - 1;
+        if (plies == 0) {
+            return "Xeque-mate";
+        }
+        return value > 0 ? "Quem joga dá mate em " + (plies + 1) / 2 : "Quem joga leva mate em " + plies / 2;
+    }
+
+    public int getCachedBlocks() {
+        return cache.size();
+    }
+
+    public long getCacheHits() {
+        return cache.getHits();
+    }
+
+    public long getCacheMisses() {
+        return cache.getMisses();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    static int index(int side, int strongKing, int weakKing, int square) {
+        return side << 18 | strongKing << 12 | weakKing << 6 | square;
+    }
+
+    private static int tableOf(int type) {
+        for (int i = 0; i < TYPES.length; i++) {
+            if (TYPES[i] == type) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int read(int table, int index) {
+        int block = index >>> blockShift;
+        int key = table << 16 | block;
+        byte[] data = cache.get(key);
+        if (data == null) {
+            //Duas threads podem inflar o mesmo bloco ao mesmo tempo; o resultado é igual
+            data = inflate(table, block);
+            cache.put(key, data);
+        }
+        return data[index & ((1 << blockShift) - 1)] & 0xFF;
+    }
+
+    private byte[] inflate(int table, int block) {
+        int start = (int) offsets[table][block];
+        int end = (int) offsets[table][block + 1];
+        byte[] data = new byte[1 << blockShift];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(file.slice(start, end - start));
+            int length = 0;
+            while (length < data.length && !inflater.finished()) {
+                int read = inflater.inflate(data, length, data.length - length);
+                if (read == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != data.length) {
+                throw new IllegalStateException("Bloco da tablebase incompleto");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Bloco da tablebase corrompido", e);
+        } finally {
+            inflater.end();
+        }
+        return data;
+    }
+
+    private static void write(Path path, byte[][] tables) throws IOException {
+        int blocks = ENTRIES >>> BLOCK_SHIFT;
+        int blockSize = 1 << BLOCK_SHIFT;
+        long position = HEADER_SIZE + 8L * tables.length * (blocks + 1);
+        ByteBuffer index = ByteBuffer.allocate((int) position).order(ORDER);
+        index.putInt(MAGIC).putShort(VERSION).putShort((short) tables.length).putInt(BLOCK_SHIFT).putInt(0);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(position);
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            byte[] compressed = new byte[blockSize * 2];
+            try {
+                for (byte[] table : tables) {
+                    for (int block = 0; block < blocks; block++) {
+                        index.putLong(position);
+                        deflater.reset();
+                        deflater.setInput(table, block * blockSize, blockSize);
+                        deflater.finish();
+                        int length = deflater.deflate(compressed);
+                        ByteBuffer buffer = ByteBuffer.wrap(compressed, 0, length);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                        position += length;
+                    }
+                    index.putLong(position);
+                }
+            } finally {
+                deflater.end();
+            }
+            index.flip();
+            while (index.hasRemaining()) {
+                channel.write(index, index.position());
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package chess.tablebase;
+
+import chess.Attacks;
+import chess.BitBoard;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//Análise retrógrada de K+peça contra K, com o lado forte normalizado para as brancas.
+//Parte dos mates e anda para trás: lance do forte que leva a posição perdida para o fraco vence;
+//posição do fraco só perde quando todos os lances dele levam a posições já vencidas pelo forte
+final class TablebaseGenerator {
+    private static final int WHITE_KING = BitBoard.piece(BitBoard.WHITE, BitBoard.KING);
+    private static final int BLACK_KING = BitBoard.piece(BitBoard.BLACK, BitBoard.KING);
+
+    private final int type;
+    private final byte[] dtm = new byte[Tablebase.ENTRIES];
+    //Lances do fraco que ainda não levam a vitória do forte, por posição com o fraco a jogar
+    private final byte[] pending = new byte[Tablebase.ENTRIES >> 1];
+    //Posições resolvidas, por distância até o mate em meio-lances
+    private final List<IntList> buckets = new ArrayList<>();
+    private final List<IntList> seeds = new ArrayList<>();
+
+    private TablebaseGenerator(int type) {
+        this.type = type;
+    }
+
+    //queen e rook são as tabelas já geradas para onde o peão promove (só para PAWN)
+    static byte[] generate(int type, byte[] queen, byte[] rook) {
+        TablebaseGenerator generator = new TablebaseGenerator(type);
+        generator.countMoves();
+        if (type == BitBoard.PAWN) {
+            generator.seedPromotions(queen);
+            generator.seedPromotions(rook);
+        }
+        generator.propagate();
+        return generator.dtm;
+    }
+
+    private void countMoves() {
+        BitBoard board = new BitBoard();
+        MoveList moves = new MoveList();
+        int piece = BitBoard.piece(BitBoard.WHITE, type);
+        for (int index = 0; index < pending.length; index++) {
+            int wk = index >>> 12;
+            int bk = (index >>> 6) & 63;
+            int square = index & 63;
+            if (!isLegal(Tablebase.WEAK, wk, bk, square)) {
+                continue;
+            }
+            board.clear();
+            board.put(wk, WHITE_KING);
+            board.put(bk, BLACK_KING);
+            board.put(square, piece);
+            board.setSideToMove(BitBoard.BLACK);
+            MoveGenerator.generate(board, moves);
+            pending[index] = (byte) moves.size();
+            if (moves.isEmpty() && board.isAttacked(bk, BitBoard.WHITE)) {
+                resolve(Tablebase.index(Tablebase.WEAK, wk, bk, square), 0);
+            }
+        }
+    }
+
+    //Promoção para posição já vencida na outra tabela: vence nessa distância, se nada vencer antes
+    private void seedPromotions(byte[] table) {
+        for (int index = 0; index < pending.length; index++) {
+            int wk = index >>> 12;
+            int bk = (index >>> 6) & 63;
+            int square = index & 63;
+            int to = square + 8;
+            if (square < 48 || to == wk || to == bk || !isLegal(Tablebase.STRONG, wk, bk, square)) {
+                continue;
+            }
+            int value = table[Tablebase.index(Tablebase.WEAK, wk, bk, to)] & 0xFF;
+            if (value != 0) {
+                bucket(seeds, value).add(Tablebase.index(Tablebase.STRONG, wk, bk, square));
+            }
+        }
+    }
+
+    private void propagate() {
+        for (int depth = 0; depth < Math.max(buckets.size(), seeds.size()); depth++) {
+            IntList current = bucket(buckets, depth);
+            if (depth < seeds.size()) {
+                IntList list = seeds.get(depth);
+                for (int i = 0; i < list.size; i++) {
+                    if (dtm[list.values[i]] == 0) {
+                        dtm[list.values[i]] = (byte) (depth + 1);
+                        current.add(list.values[i]);
+                    }
+                }
+            }
+            for (int i = 0; i < current.size; i++) {
+                int index = current.values[i];
+                if (index >>> 18 == Tablebase.WEAK) {
+                    unmoveStrong(index, depth);
+                } else {
+                    unmoveWeak(index, depth);
+                }
+            }
+            buckets.set(depth, null);
+        }
+    }
+
+    //O fraco perde em depth: qualquer lance do forte que chegue aqui vence em depth + 1
+    private void unmoveStrong(int index, int depth) {
+        int wk = (index >>> 12) & 63;
+        int bk = (index >>> 6) & 63;
+        int square = index & 63;
+        long occupied = (1L << wk) | (1L << bk) | (1L << square);
+        for (long from = Attacks.king(wk) & ~occupied; from != 0; from &= from - 1) {
+            win(Long.numberOfTrailingZeros(from), bk, square, depth + 1);
+        }
+        long from;
+        if (type == BitBoard.QUEEN) {
+            from = Attacks.queen(square, occupied);
+        } else if (type == BitBoard.ROOK) {
+            from = Attacks.rook(square, occupied);
+        } else {
+            //Peão anda só para frente e nunca captura aqui; avanço duplo só da segunda fileira
+            from = square >= 16 ? 1L << (square - 8) : 0;
+            if (square >>> 3 == 3 && (occupied & (1L << (square - 8))) == 0) {
+                from |= 1L << (square - 16);
+            }
+        }
+        for (from &= ~occupied; from != 0; from &= from - 1) {
+            win(wk, bk, Long.numberOfTrailingZeros(from), depth + 1);
+        }
+    }
+
+    //O forte vence em depth: o lance do fraco que chega aqui deixa de ser uma saída
+    private void unmoveWeak(int index, int depth) {
+        int wk = (index >>> 12) & 63;
+        int bk = (index >>> 6) & 63;
+        int square = index & 63;
+        long occupied = (1L << wk) | (1L << bk) | (1L << square);
+        for (long from = Attacks.king(bk) & ~occupied; from != 0; from &= from - 1) {
+            int king = Long.numberOfTrailingZeros(from);
+            if (!isLegal(Tablebase.WEAK, wk, king, square)) {
+                continue;
+            }
+            int previous = Tablebase.index(Tablebase.WEAK, wk, king, square);
+            if (dtm[previous] == 0 && --pending[previous & (pending.length - 1)] == 0) {
+                //Os lances são resolvidos em ordem de distância: o último é a defesa mais longa
+                resolve(previous, depth + 1);
+            }
+        }
+    }
+
+    private void win(int wk, int bk, int square, int depth) {
+        if (isLegal(Tablebase.STRONG, wk, bk, square)) {
+            int index = Tablebase.index(Tablebase.STRONG, wk, bk, square);
+            if (dtm[index] == 0) {
+                resolve(index, depth);
+            }
+        }
+    }
+
+    private void resolve(int index, int depth) {
+        if (depth >= 255) {
+            throw new IllegalStateException("Distância de mate grande demais para a tabela");
+        }
+        dtm[index] = (byte) (depth + 1);
+        bucket(buckets, depth).add(index);
+    }
+
+    private static IntList bucket(List<IntList> lists, int depth) {
+        while (lists.size() <= depth) {
+            lists.add(new IntList());
+        }
+        return lists.get(depth);
+    }
+
+    private boolean isLegal(int side, int wk, int bk, int square) {
+        if (wk == bk || wk == square || bk == square || (Attacks.king(wk) & (1L << bk)) != 0) {
+            return false;
+        }
+        if (type == BitBoard.PAWN && (square < 8 || square >= 56)) {
+            return false;
+        }
+        //Com o forte a jogar o rei fraco não pode estar em xeque
+        return side == Tablebase.WEAK || (attacks(square, (1L << wk) | (1L << bk)) & (1L << bk)) == 0;
+    }
+
+    private long attacks(int square, long kings) {
+        switch (type) {
+            case BitBoard.QUEEN:
+                return Attacks.queen(square, kings | (1L << square));
+            case BitBoard.ROOK:
+                return Attacks.rook(square, kings | (1L << square));
+            default:
+                return Attacks.pawn(BitBoard.WHITE, square);
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[256];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}